@@ -0,0 +1,31 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the hot path benchmarks with JMH's GC profiler, which adds the bytes
+ * allocated per operation (gc.alloc.rate.norm) to each result. The budgets
+ * in AllocationBudgetTests should follow these numbers.
+ * <p>
+ * Run with {@code java -cp benchmarks/target/benchmarks.jar benchmarks.AllocationProfile}
+ */
+public final class AllocationProfile {
+
+    private AllocationProfile() {
+
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MoveGenerationBenchmark.class.getSimpleName() + "\\.(validMoves|isInCheckmate)$")
+                .include(SerializationBenchmark.class.getSimpleName())
+                .include(WebsocketBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
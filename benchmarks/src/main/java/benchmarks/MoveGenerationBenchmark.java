@@ -0,0 +1,87 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move generation through the public ChessPiece and ChessGame methods the
+ * server calls, on a busy middlegame position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+    static final String MIDDLEGAME = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1";
+
+    private ChessGame game;
+    private ChessBoard board;
+    private ChessPosition[] occupied;
+    private ChessPosition[] toMove;
+
+    @Setup
+    public void setup() {
+        game = ChessGame.fromFen(MIDDLEGAME);
+        board = game.getBoard();
+        List<ChessPosition> all = new ArrayList<>();
+        List<ChessPosition> mine = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = ChessPosition.of(row, col);
+                ChessPiece piece = board.getPiece(position);
+                if (piece != null) {
+                    all.add(position);
+                    if (piece.getTeamColor() == game.getTeamTurn()) {
+                        mine.add(position);
+                    }
+                }
+            }
+        }
+        occupied = all.toArray(new ChessPosition[0]);
+        toMove = mine.toArray(new ChessPosition[0]);
+    }
+
+    @Benchmark
+    public int pieceMoves() {
+        int count = 0;
+        for (ChessPosition position : occupied) {
+            count += board.getPiece(position).pieceMoves(board, position).size();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int validMoves() {
+        int count = 0;
+        for (ChessPosition position : toMove) {
+            count += game.validMoves(position).size();
+        }
+        return count;
+    }
+
+    /**
+     * Flips the turn first, which changes the position key, so the cached
+     * status is recomputed on every call rather than read back
+     */
+    @Benchmark
+    public boolean isInCheckmate() {
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        game.setTeamTurn(turn == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        return game.isInCheckmate(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public boolean isInCheckmateCached() {
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+}
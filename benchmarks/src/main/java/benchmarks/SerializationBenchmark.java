@@ -0,0 +1,57 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.GameCodec;
+import org.openjdk.jmh.annotations.*;
+import serialization.Serializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two ways a ChessGame is stored and sent: JSON through the shared Gson
+ * and the GameCodec bytes kept in the games table
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ChessGame game;
+    private String json;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        game = ChessGame.fromFen(MoveGenerationBenchmark.MIDDLEGAME);
+        json = Serializer.GSON.toJson(game);
+        encoded = GameCodec.encode(game);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return Serializer.GSON.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame fromJson() {
+        return Serializer.GSON.fromJson(json, ChessGame.class);
+    }
+
+    @Benchmark
+    public ChessGame jsonRoundTrip() {
+        return Serializer.GSON.fromJson(Serializer.GSON.toJson(game), ChessGame.class);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return GameCodec.encode(game);
+    }
+
+    @Benchmark
+    public ChessGame decode() {
+        return GameCodec.decode(encoded);
+    }
+}
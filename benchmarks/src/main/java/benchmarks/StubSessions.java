@@ -0,0 +1,41 @@
+package benchmarks;
+
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Websocket sessions that are always open and count the characters sent to
+ * them instead of writing to a socket. Only the methods the server calls are
+ * implemented; equals and hashCode are by identity so sessions work as map keys.
+ */
+final class StubSessions {
+
+    private StubSessions() {
+
+    }
+
+    static Session open(LongAdder sent) {
+        RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(StubSessions.class.getClassLoader(),
+                new Class<?>[]{RemoteEndpoint.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "sendString" -> {
+                        sent.add(((String) args[0]).length());
+                        yield null;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return (Session) Proxy.newProxyInstance(StubSessions.class.getClassLoader(),
+                new Class<?>[]{Session.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getRemote" -> remote;
+                    case "isOpen" -> true;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubSession@" + Integer.toHexString(System.identityHashCode(proxy));
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
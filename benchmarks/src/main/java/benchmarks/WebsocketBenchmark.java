@@ -0,0 +1,112 @@
+package benchmarks;
+
+import chess.ChessMove;
+import chess.ChessPosition;
+import dataaccess.MemoryAuthDAO;
+import dataaccess.MemoryGameDAO;
+import exception.ResponseException;
+import io.javalin.websocket.WsMessageContext;
+import model.UserData;
+import org.eclipse.jetty.websocket.api.Session;
+import org.openjdk.jmh.annotations.*;
+import serialization.Serializer;
+import websocket.ConnectionManager;
+import websocket.GameSequencer;
+import websocket.WebsocketHandler;
+import websocket.commands.MakeMoveCommand;
+import websocket.messages.NotificationMessage;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The websocket side of a game: notifying everyone watching, and a move's
+ * whole trip through the handler (parse the command JSON, look up the auth
+ * token, queue it on the game's sequencer, then load, validate, move, save
+ * and broadcast) against in-memory DAOs, so the numbers leave out MySQL.
+ * <p>
+ * The sequencer runs its tasks on the calling thread, so each command has
+ * finished when handleMessage returns; the hand-off to a virtual thread the
+ * server makes is not included.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebsocketBenchmark {
+
+    /*
+     * Both knights out and back again, which returns to the starting position
+     * so the game can be replayed for as long as the benchmark runs
+     */
+    private static final ChessMove[] KNIGHT_SHUFFLE = {
+            ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null),
+            ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null),
+            ChessMove.of(ChessPosition.of(3, 6), ChessPosition.of(1, 7), null),
+            ChessMove.of(ChessPosition.of(6, 6), ChessPosition.of(8, 7), null),
+    };
+
+    @Param({"1", "10", "100"})
+    public int watchers;
+
+    private final LongAdder sent = new LongAdder();
+    private ConnectionManager connections;
+    private WebsocketHandler handler;
+    private Session white;
+    private Session black;
+    private WsMessageContext[] messages;
+    private NotificationMessage notification;
+    private int gameID;
+
+    @Setup
+    public void setup() throws ResponseException {
+        MemoryGameDAO gameDAO = new MemoryGameDAO();
+        gameID = gameDAO.createGame("benchmark");
+        gameDAO.joinGame(gameID, "white", "black");
+        MemoryAuthDAO authDAO = new MemoryAuthDAO();
+        String whiteToken = authDAO.createAuth(new UserData("white", "password", "white@chess")).getToken();
+        String blackToken = authDAO.createAuth(new UserData("black", "password", "black@chess")).getToken();
+        handler = new WebsocketHandler(gameDAO, authDAO, new GameSequencer(Runnable::run));
+
+        connections = new ConnectionManager();
+        white = StubSessions.open(sent);
+        black = StubSessions.open(sent);
+        for (ConnectionManager manager : new ConnectionManager[]{connections, handler.getConnections()}) {
+            manager.add(white, gameID);
+            manager.add(black, gameID);
+            for (int i = 0; i < watchers; i++) {
+                manager.add(StubSessions.open(sent), gameID);
+            }
+        }
+
+        messages = new WsMessageContext[KNIGHT_SHUFFLE.length];
+        for (int i = 0; i < messages.length; i++) {
+            boolean whiteMoves = (i & 1) == 0;
+            MakeMoveCommand command = new MakeMoveCommand(whiteMoves ? whiteToken : blackToken, gameID, KNIGHT_SHUFFLE[i]);
+            messages[i] = new WsMessageContext("benchmark", whiteMoves ? white : black,
+                    Serializer.GSON.toJson(command));
+        }
+        notification = new NotificationMessage("'white' moved a piece from <g1> to <f3>.");
+    }
+
+    @Benchmark
+    public long broadcast() throws IOException {
+        connections.broadcast(white, gameID, notification);
+        return sent.sum();
+    }
+
+    /**
+     * One full knight shuffle, four MAKE_MOVE messages alternating between players
+     */
+    @Benchmark
+    @OperationsPerInvocation(4)
+    public long makeMove() {
+        for (WsMessageContext message : messages) {
+            handler.handleMessage(message);
+        }
+        return sent.sum();
+    }
+}
@@ -0,0 +1,96 @@
+package benchmarks;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Fails when a hot path allocates more per operation than its budget. Each
+ * check drives the same method the matching benchmark measures, warms it up
+ * so the JIT has compiled it, then reads the thread's allocation counter.
+ * <p>
+ * When a change cuts allocation, lower the budget here to lock it in; run
+ * AllocationProfile to see the current numbers.
+ */
+public class AllocationBudgetTests {
+
+    private static final int WARMUP = 20_000;
+    private static final int MEASURED = 2_000;
+
+    private static com.sun.management.ThreadMXBean threads;
+
+    private interface Operation {
+        void run() throws Exception;
+    }
+
+    @BeforeAll
+    public static void checkSupport() {
+        boolean supported = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported();
+        Assumptions.assumeTrue(supported, "this JVM cannot count allocated bytes per thread");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void validMovesBudget() throws Exception {
+        MoveGenerationBenchmark benchmark = new MoveGenerationBenchmark();
+        benchmark.setup();
+        assertBudget("validMoves", 1_000, benchmark::validMoves);
+    }
+
+    @Test
+    public void isInCheckmateBudget() throws Exception {
+        MoveGenerationBenchmark benchmark = new MoveGenerationBenchmark();
+        benchmark.setup();
+        assertBudget("isInCheckmate", 64, benchmark::isInCheckmate);
+        // a cached answer should allocate nothing; the slack is for JVMs whose
+        // allocation counter or JIT leaves a few bytes behind, not for an object
+        assertBudget("isInCheckmateCached", 8, benchmark::isInCheckmateCached);
+    }
+
+    @Test
+    public void serializationBudget() throws Exception {
+        SerializationBenchmark benchmark = new SerializationBenchmark();
+        benchmark.setup();
+        assertBudget("toJson", 8_000, benchmark::toJson);
+        assertBudget("fromJson", 14_000, benchmark::fromJson);
+        assertBudget("encode", 100, benchmark::encode);
+        assertBudget("decode", 2_500, benchmark::decode);
+    }
+
+    @Test
+    public void makeMoveBudget() throws Exception {
+        WebsocketBenchmark benchmark = new WebsocketBenchmark();
+        benchmark.watchers = 10;
+        benchmark.setup();
+        // makeMove sends four MAKE_MOVE messages per call, each parsed from JSON
+        assertBudget("makeMove x4", 4 * 36_000, benchmark::makeMove);
+    }
+
+    @Test
+    public void broadcastBudget() throws Exception {
+        WebsocketBenchmark benchmark = new WebsocketBenchmark();
+        benchmark.watchers = 100;
+        benchmark.setup();
+        assertBudget("broadcast to 100", 4_000, benchmark::broadcast);
+    }
+
+    private static void assertBudget(String name, long budget, Operation operation) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.run();
+        }
+        long thread = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < MEASURED; i++) {
+            operation.run();
+        }
+        long perOperation = (threads.getThreadAllocatedBytes(thread) - before) / MEASURED;
+        System.out.printf("%s allocated %d bytes per operation (budget %d)%n", name, perOperation, budget);
+        Assertions.assertTrue(perOperation <= budget,
+                name + " allocated " + perOperation + " bytes per operation, over its budget of " + budget);
+    }
+}
@@ -2,10 +2,9 @@ package client;
 
 import chess.*;
 import client.websocket.*;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import exception.ResponseException;
 import model.GameData;
+import serialization.Serializer;
 import server.ServerFacade;
 import ui.ChessDisplay;
 import websocket.messages.*;
@@ -123,9 +122,9 @@ public class GamePlayClient implements ChessClient, NotificationHandler {
                 }
                 int startCol = starts.charAt(0) - 'A' + 1;
                 int startRow = Character.getNumericValue(starts.charAt(1));
-                ChessPosition startPos = new ChessPosition(startRow, startCol);
-                ChessPosition endPos = new ChessPosition((end[1]-'0'), (end[0]-'A'+1));
-                ChessMove move = new ChessMove(startPos, endPos, null);
+                ChessPosition startPos = ChessPosition.of(startRow, startCol);
+                ChessPosition endPos = ChessPosition.of((end[1]-'0'), (end[0]-'A'+1));
+                ChessMove move = ChessMove.of(startPos, endPos, null);
                 if (game.getBoard().getPiece(startPos).getPieceType() == ChessPiece.PieceType.PAWN) {
                     move = promotePawn(startPos, endPos);
                 }
@@ -144,20 +143,20 @@ public class GamePlayClient implements ChessClient, NotificationHandler {
             String promote = scanner.nextLine().trim();
             switch (promote) {
                 case "QUEEN" -> {
-                    return new ChessMove(start, end, ChessPiece.PieceType.QUEEN);
+                    return ChessMove.of(start, end, ChessPiece.PieceType.QUEEN);
                 }
                 case "BISHOP" -> {
-                    return new ChessMove(start, end, ChessPiece.PieceType.BISHOP);
+                    return ChessMove.of(start, end, ChessPiece.PieceType.BISHOP);
                 }
                 case "ROOK" -> {
-                    return new ChessMove(start, end, ChessPiece.PieceType.ROOK);
+                    return ChessMove.of(start, end, ChessPiece.PieceType.ROOK);
                 }
                 case "KNIGHT" -> {
-                    return new ChessMove(start, end, ChessPiece.PieceType.KNIGHT);
+                    return ChessMove.of(start, end, ChessPiece.PieceType.KNIGHT);
                 }
             }
         }
-        return new ChessMove(start, end, null);
+        return ChessMove.of(start, end, null);
     }
 
     private String highlight(String in) {
@@ -172,7 +171,7 @@ public class GamePlayClient implements ChessClient, NotificationHandler {
             if (game.isEnded()) {
                 return "The game has ended, you can leave.";
             }
-            ChessPosition startPos = new ChessPosition((start[1]-'0'), (start[0]-'A'+1));
+            ChessPosition startPos = ChessPosition.of((start[1]-'0'), (start[0]-'A'+1));
             if (game.getBoard().getPiece(startPos) == null) {
                 return "No piece at selected position.";
             }
@@ -203,18 +202,18 @@ public class GamePlayClient implements ChessClient, NotificationHandler {
     }
 
     public void notify(String message) {
-        ServerMessage serverMessage = new Gson().fromJson(message, ServerMessage.class);
+        ServerMessage serverMessage = Serializer.GSON.fromJson(message, ServerMessage.class);
         switch (serverMessage.getServerMessageType()) {
             case ERROR -> {
-                ErrorMessage error = new Gson().fromJson(message, ErrorMessage.class);
+                ErrorMessage error = Serializer.GSON.fromJson(message, ErrorMessage.class);
                 System.out.println("\n" + SET_TEXT_COLOR_RED + error.getErrorMessage());
             }
             case NOTIFICATION -> {
-                NotificationMessage notice = new Gson().fromJson(message, NotificationMessage.class);
+                NotificationMessage notice = Serializer.GSON.fromJson(message, NotificationMessage.class);
                 System.out.println("\n" + SET_TEXT_COLOR_MAGENTA + notice.getNotification());
             }
             case LOAD_GAME -> {
-                LoadGameMessage load = new Gson().fromJson(message, LoadGameMessage.class);
+                LoadGameMessage load = Serializer.GSON.fromJson(message, LoadGameMessage.class);
                 loadGame(load);
             }
         }
@@ -222,10 +221,7 @@ public class GamePlayClient implements ChessClient, NotificationHandler {
     }
 
     private void loadGame(LoadGameMessage load) {
-        GsonBuilder gsonBuilder = new GsonBuilder();
-        gsonBuilder.registerTypeAdapter(ChessGame.class, new ChessGameTypeAdapter());
-        Gson gson = gsonBuilder.create();
-        game = gson.fromJson(load.getGame(), ChessGame.class);
+        game = Serializer.GSON.fromJson(load.getGame(), ChessGame.class);
         ChessDisplay dis = new ChessDisplay(game.getBoard());
         ChessGame.TeamColor disCol;
         if (joinedCol.equals("WHITE")) {
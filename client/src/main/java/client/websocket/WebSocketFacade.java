@@ -1,9 +1,9 @@
 package client.websocket;
 
 import chess.ChessMove;
-import com.google.gson.Gson;
 import exception.ResponseException;
 import jakarta.websocket.*;
+import serialization.Serializer;
 import websocket.commands.ConnectCommand;
 import websocket.commands.LeaveCommand;
 import websocket.commands.MakeMoveCommand;
@@ -44,7 +44,7 @@ public class WebSocketFacade extends Endpoint {
     public void connect(String authToken, int gameID) throws ResponseException{
         try {
             ConnectCommand command = new ConnectCommand(authToken, gameID);
-            this.session.getBasicRemote().sendText(new Gson().toJson(command));
+            this.session.getBasicRemote().sendText(Serializer.GSON.toJson(command));
         } catch (IOException e) {
             throw new ResponseException(500, "Error: Failed to connect to server.");
         }
@@ -53,7 +53,7 @@ public class WebSocketFacade extends Endpoint {
     public void makeMove(String authToken, int gameID, ChessMove move) throws ResponseException {
         try {
             MakeMoveCommand command = new MakeMoveCommand(authToken, gameID, move);
-            this.session.getBasicRemote().sendText(new Gson().toJson(command));
+            this.session.getBasicRemote().sendText(Serializer.GSON.toJson(command));
         } catch (IOException e) {
             throw new ResponseException(500, "Error: Failed to make move.");
         }
@@ -62,7 +62,7 @@ public class WebSocketFacade extends Endpoint {
     public void leave(String authToken, int gameID) throws ResponseException {
         try {
             LeaveCommand command = new LeaveCommand(authToken, gameID);
-            this.session.getBasicRemote().sendText(new Gson().toJson(command));
+            this.session.getBasicRemote().sendText(Serializer.GSON.toJson(command));
         } catch(IOException e) {
             throw new ResponseException(500, "Error: Failed to leave game.");
         }
@@ -71,7 +71,7 @@ public class WebSocketFacade extends Endpoint {
     public void resign(String authToken, int gameID) throws ResponseException {
         try {
             ResignCommand command = new ResignCommand(authToken, gameID);
-            this.session.getBasicRemote().sendText(new Gson().toJson(command));
+            this.session.getBasicRemote().sendText(Serializer.GSON.toJson(command));
         } catch (IOException e) {
             throw new ResponseException(500, "Error: Failed to resign from game.");
         }
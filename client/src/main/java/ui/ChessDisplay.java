@@ -120,7 +120,7 @@ public class ChessDisplay {
                 highlightHelper(out, highlightSquare, boardCol, rowNum);
 
                 out.print(EMPTY.repeat(SQUARE_SIZE_PADDED / 2));
-                ChessPiece piece = board.getPiece(new ChessPosition(rowNum + 1, boardCol + 1));
+                ChessPiece piece = board.getPiece(ChessPosition.of(rowNum + 1, boardCol + 1));
                 String symbol = EMPTY;
                 if (piece != null) {
                     symbol = piece.getTeamColor() == ChessGame.TeamColor.WHITE
@@ -0,0 +1,147 @@
+package engine;
+
+import chess.Bitboard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Static evaluation: material plus piece-square tables. The tables are the
+ * "simplified evaluation function" ones from the Chess Programming Wiki. The
+ * king has separate middlegame and endgame tables, blended by how much
+ * non-pawn material is left on the board.
+ */
+public final class Evaluator {
+
+    /** Centipawn values indexed by PieceType ordinal (KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN) */
+    private static final int[] VALUES = {0, 900, 330, 320, 500, 100};
+
+    /** Game phase weights by PieceType ordinal; a full set of pieces adds up to TOTAL_PHASE */
+    private static final int[] PHASE = {0, 4, 1, 1, 2, 0};
+    private static final int TOTAL_PHASE = 24;
+
+    // Tables are written from white's side with rank 8 on top, so white looks
+    // up square ^ 56 and black looks up the square as is
+    private static final int[] KING_MIDDLEGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20
+    };
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+    };
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+    private static final int[] ROOK = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0
+    };
+    private static final int[] PAWN = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    /** Piece-square tables by PieceType ordinal; the king's is handled separately */
+    private static final int[][] TABLES = {null, QUEEN, BISHOP, KNIGHT, ROOK, PAWN};
+
+    private Evaluator() {
+
+    }
+
+    /**
+     * @return the centipawn value of a piece type (0 for the king)
+     */
+    public static int value(ChessPiece.PieceType type) {
+        return VALUES[type.ordinal()];
+    }
+
+    /**
+     * Scores a position without searching
+     *
+     * @return centipawns from the point of view of the team to move
+     */
+    public static int evaluate(ChessGame game) {
+        Bitboard bits = game.getBoard().getBitboard();
+        int score = 0;
+        int phase = 0;
+        for (int type = 1; type < Bitboard.PIECE_TYPES; type++) {
+            int[] table = TABLES[type];
+            for (int color = Bitboard.WHITE; color <= Bitboard.BLACK; color++) {
+                long pieces = bits.pieces(color * Bitboard.PIECE_TYPES + type);
+                int flip = (color == Bitboard.WHITE) ? 56 : 0;
+                int sum = 0;
+                while (pieces != 0) {
+                    int square = Long.numberOfTrailingZeros(pieces);
+                    pieces &= pieces - 1;
+                    sum += VALUES[type] + table[square ^ flip];
+                    phase += PHASE[type];
+                }
+                score += (color == Bitboard.WHITE) ? sum : -sum;
+            }
+        }
+
+        phase = Math.min(phase, TOTAL_PHASE);
+        score += kingScore(bits.pieces(Bitboard.WHITE * Bitboard.PIECE_TYPES), 56, phase);
+        score -= kingScore(bits.pieces(Bitboard.BLACK * Bitboard.PIECE_TYPES), 0, phase);
+        return (game.getTeamTurn() == ChessGame.TeamColor.WHITE) ? score : -score;
+    }
+
+    private static int kingScore(long king, int flip, int phase) {
+        if (king == 0) {
+            return 0;
+        }
+        int square = Long.numberOfTrailingZeros(king) ^ flip;
+        return (KING_MIDDLEGAME[square] * phase + KING_ENDGAME[square] * (TOTAL_PHASE - phase)) / TOTAL_PHASE;
+    }
+}
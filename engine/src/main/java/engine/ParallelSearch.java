@@ -0,0 +1,105 @@
+package engine;
+
+import chess.ChessGame;
+import chess.TranspositionTable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multi-threaded search in the "lazy SMP" style: helper threads search the
+ * same root as the main thread, each on its own copy of the game, and all of
+ * them share one transposition table. The helpers never talk to each other;
+ * they help because their results land in the table and let the other
+ * threads cut off sooner. Every other helper starts one iteration deeper so
+ * the threads do not all walk the tree in lock step.
+ * <p>
+ * Only the main thread watches the limits. When it finishes, it stops the
+ * helpers and returns the deepest completed result of any thread, with the
+ * nodes of every thread counted.
+ * <p>
+ * One ParallelSearch runs one search at a time; search blocks other callers
+ * until it returns.
+ */
+public final class ParallelSearch {
+
+    private final TranspositionTable table;
+    private final Search main;
+    private final List<Search> helpers = new ArrayList<>();
+
+    public ParallelSearch(TranspositionTable table) {
+        this.table = table;
+        this.main = new Search(table);
+    }
+
+    /**
+     * Searches a position on limits.threads() threads. The game itself is not
+     * modified.
+     *
+     * @return the result of the deepest iteration any thread finished
+     */
+    public synchronized SearchResult search(ChessGame game, SearchLimits limits) {
+        int helperCount = limits.threads() - 1;
+        while (helpers.size() < helperCount) {
+            helpers.add(new Search(table));
+        }
+        table.newSearch();
+
+        SearchLimits helperLimits = new SearchLimits(limits.maxDepth(), 0, 0);
+        SearchResult[] helperResults = new SearchResult[helperCount];
+        Thread[] threads = new Thread[helperCount];
+        for (int i = 0; i < helperCount; i++) {
+            int index = i;
+            Search helper = helpers.get(i);
+            ChessGame copy = new ChessGame(game);
+            int firstDepth = 1 + (i + 1) % 2;
+            helper.resume();
+            threads[i] = Thread.ofPlatform().daemon().name("search-helper-" + (i + 1))
+                    .start(() -> helperResults[index] = helper.iterate(copy, helperLimits, firstDepth));
+        }
+
+        main.resume();
+        SearchResult best = main.iterate(game, limits, 1);
+        for (int i = 0; i < helperCount; i++) {
+            helpers.get(i).stop();
+        }
+        joinAll(threads);
+
+        long nodes = best.nodes();
+        for (SearchResult result : helperResults) {
+            if (result == null) {
+                continue;
+            }
+            nodes += result.nodes();
+            if (result.depth() > best.depth() && result.bestMove() != null) {
+                best = result;
+            }
+        }
+        return new SearchResult(best.bestMove(), best.principalVariation(), best.score(), best.depth(),
+                nodes, best.millis());
+    }
+
+    /**
+     * Asks a running search to finish early
+     */
+    public void stop() {
+        main.stop();
+    }
+
+    private static void joinAll(Thread[] threads) {
+        boolean interrupted = false;
+        for (Thread thread : threads) {
+            while (true) {
+                try {
+                    thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
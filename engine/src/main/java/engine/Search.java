@@ -0,0 +1,433 @@
+package engine;
+
+import chess.Bitboard;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveList;
+import chess.TranspositionTable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Iterative-deepening alpha-beta search over a ChessGame.
+ * <p>
+ * Each iteration is a principal variation search: the first move at a node is
+ * searched with the full window and the rest with a null window, re-searched
+ * only if they turn out better. Moves are tried in the order hash move,
+ * captures by most valuable victim then least valuable attacker, killer moves,
+ * then quiet moves by history score. At depth 0 a quiescence search plays out
+ * captures and queen promotions so that the evaluation is never taken in the
+ * middle of an exchange. A side in check is searched one ply deeper.
+ * <p>
+ * Moves are handled as packed ints (see Move) with one MoveList per ply, so
+ * the search allocates nothing per node; moves become ChessMoves only in the
+ * result.
+ * <p>
+ * A Search keeps per-search state and must only be used by one thread at a
+ * time; stop may be called from any thread.
+ */
+public final class Search {
+
+    /** Deepest iteration a search will start */
+    public static final int MAX_DEPTH = 64;
+
+    static final int INFINITY = 32000;
+    static final int MATE = 31000;
+    private static final int DRAW = 0;
+    private static final int MAX_PLY = 128;
+
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int PROMOTION_SCORE = 1 << 27;
+    private static final int KILLER_SCORE = 1 << 26;
+
+    private static final long WHITE_PROMOTION_RANK = 0xFF00000000000000L;
+    private static final long BLACK_PROMOTION_RANK = 0x00000000000000FFL;
+
+    private final TranspositionTable table;
+
+    private final int[][] pv = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][] history = new int[64][64];
+    private final long[] pathKeys = new long[MAX_PLY];
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final int[][] moveScores = new int[MAX_PLY][MoveList.CAPACITY];
+
+    private volatile boolean stopped;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+    private boolean timed;
+
+    public Search(TranspositionTable table) {
+        this.table = table;
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList();
+        }
+    }
+
+    /**
+     * Searches a position. The game itself is not modified; the search runs
+     * on a copy.
+     *
+     * @param game   the position to search, with the team to move as its team turn
+     * @param limits when to stop
+     * @return the result of the deepest iteration that finished
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        stopped = false;
+        table.newSearch();
+        return iterate(game, limits, 1);
+    }
+
+    /**
+     * Runs the iterations of a search without resetting the stop flag or
+     * starting a new table generation, so that a helper thread can join a
+     * search already under way (see ParallelSearch)
+     *
+     * @param firstDepth depth of the first iteration
+     */
+    SearchResult iterate(ChessGame game, SearchLimits limits, int firstDepth) {
+        long start = System.nanoTime();
+        ChessGame position = new ChessGame(game);
+        nodes = 0;
+        nodeLimit = (limits.maxNodes() == 0) ? Long.MAX_VALUE : limits.maxNodes();
+        timed = limits.maxMillis() != 0;
+        deadline = start + limits.maxMillis() * 1_000_000;
+        int maxDepth = (limits.maxDepth() == 0) ? MAX_DEPTH : Math.min(limits.maxDepth(), MAX_DEPTH);
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, Move.NONE);
+        }
+        for (int[] fromHistory : history) {
+            Arrays.fill(fromHistory, 0);
+        }
+
+        MoveList rootMoves = new MoveList();
+        MoveGenerator.legalMoves(position, ~0L, rootMoves);
+        List<ChessMove> line = rootMoves.isEmpty() ? List.of() : List.of(Move.toChessMove(rootMoves.get(0)));
+        int score = Evaluator.evaluate(position);
+        int completed = 0;
+        for (int depth = Math.min(firstDepth, maxDepth); depth <= maxDepth && !rootMoves.isEmpty(); depth++) {
+            int iterationScore = alphaBeta(position, depth, -INFINITY, INFINITY, 0);
+            if (stopped) {
+                break;
+            }
+            score = iterationScore;
+            completed = depth;
+            if (pvLength[0] > 0) {
+                line = toChessMoves(pv[0], pvLength[0]);
+            }
+            if (isMateScore(score) && MATE - Math.abs(score) <= depth) {
+                break;
+            }
+        }
+        if (rootMoves.isEmpty()) {
+            score = position.isInCheck(position.getTeamTurn()) ? -MATE : DRAW;
+        }
+        ChessMove bestMove = line.isEmpty() ? null : line.get(0);
+        return new SearchResult(bestMove, line, score, completed, nodes, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Asks a running search to finish. It returns the result of its last
+     * completed iteration.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Clears the stop flag ahead of iterate
+     */
+    void resume() {
+        stopped = false;
+    }
+
+    /**
+     * @return true if a score means one side can force checkmate
+     */
+    public static boolean isMateScore(int score) {
+        return Math.abs(score) >= MATE - MAX_PLY;
+    }
+
+    private int alphaBeta(ChessGame game, int depth, int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+        boolean inCheck = game.isInCheck(game.getTeamTurn());
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0) {
+            return quiesce(game, alpha, beta, ply);
+        }
+        if (ply >= MAX_PLY - 1) {
+            return Evaluator.evaluate(game);
+        }
+        long key = game.getZobristKey();
+        pathKeys[ply] = key;
+        if (ply > 0 && isRepetition(key, ply)) {
+            return DRAW;
+        }
+        if (countNode()) {
+            return 0;
+        }
+
+        int hashMove = Move.NONE;
+        long entry = table.probe(key);
+        if (entry != TranspositionTable.MISS) {
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        MoveGenerator.legalMoves(game, ~0L, moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : DRAW;
+        }
+        int[] scores = scoreMoves(game.getBoard(), moves, hashMove, ply);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = nextMove(moves, scores, i);
+            game.applyMove(move);
+            int score;
+            if (i == 0) {
+                score = -alphaBeta(game, depth - 1, -beta, -alpha, ply + 1);
+            } else {
+                score = -alphaBeta(game, depth - 1, -alpha - 1, -alpha, ply + 1);
+                if (score > alpha && score < beta) {
+                    score = -alphaBeta(game, depth - 1, -beta, -alpha, ply + 1);
+                }
+            }
+            game.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    bestMove = move;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        if (!Move.isCapture(move) && !Move.isPromotion(move)) {
+                            rememberCutoff(move, depth, ply);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = (best >= beta) ? TranspositionTable.LOWER_BOUND
+                : (best > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        table.store(key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Searches only captures and queen promotions (every evasion when in
+     * check) until the position is quiet, so the static evaluation is not
+     * taken halfway through an exchange
+     */
+    private int quiesce(ChessGame game, int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+        if (countNode()) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return Evaluator.evaluate(game);
+        }
+
+        ChessBoard board = game.getBoard();
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        int best;
+        if (game.isInCheck(turn)) {
+            MoveGenerator.legalMoves(game, ~0L, moves);
+            if (moves.isEmpty()) {
+                return -MATE + ply;
+            }
+            best = -INFINITY;
+        } else {
+            best = Evaluator.evaluate(game);
+            if (best >= beta) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+            Bitboard bits = board.getBitboard();
+            int us = Bitboard.colorIndex(turn);
+            long pawns = bits.pieces(turn, ChessPiece.PieceType.PAWN);
+            long promotionRank = (us == Bitboard.WHITE) ? WHITE_PROMOTION_RANK : BLACK_PROMOTION_RANK;
+            MoveGenerator.legalMoves(game, ~0L, bits.color(1 - us), moves);
+            MoveGenerator.legalMoves(game, pawns, promotionRank & ~bits.occupied(), moves);
+        }
+        int[] scores = scoreMoves(board, moves, Move.NONE, ply);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = nextMove(moves, scores, i);
+            ChessPiece.PieceType promotion = Move.promotion(move);
+            if (promotion != null && promotion != ChessPiece.PieceType.QUEEN) {
+                continue;
+            }
+            game.applyMove(move);
+            int score = -quiesce(game, -beta, -alpha, ply + 1);
+            game.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Counts a node and checks the node and time limits
+     *
+     * @return true if the search should stop
+     */
+    private boolean countNode() {
+        nodes++;
+        if (nodes >= nodeLimit || (timed && (nodes & 1023) == 0 && System.nanoTime() - deadline >= 0)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private boolean isRepetition(long key, int ply) {
+        for (int i = ply - 2; i >= 0; i -= 2) {
+            if (pathKeys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int[] scoreMoves(ChessBoard board, MoveList moves, int hashMove, int ply) {
+        int[] scores = moveScores[ply];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (move == hashMove) {
+                scores[i] = HASH_MOVE_SCORE;
+            } else if (Move.isCapture(move)) {
+                // an en passant capture lands on an empty square
+                ChessPiece.PieceType victim = Move.isEnPassant(move) ? ChessPiece.PieceType.PAWN
+                        : board.pieceAt(Move.to(move)).getPieceType();
+                ChessPiece attacker = board.pieceAt(Move.from(move));
+                scores[i] = CAPTURE_SCORE + 10 * Evaluator.value(victim) - Evaluator.value(attacker.getPieceType());
+            } else if (Move.isPromotion(move)) {
+                scores[i] = PROMOTION_SCORE + Evaluator.value(Move.promotion(move));
+            } else if (move == killers[ply][0]) {
+                scores[i] = KILLER_SCORE + 1;
+            } else if (move == killers[ply][1]) {
+                scores[i] = KILLER_SCORE;
+            } else {
+                scores[i] = history[Move.from(move)][Move.to(move)];
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Selection sort one step at a time: moves the best-scored move not yet
+     * tried to index i. A cutoff usually comes early, so sorting the whole
+     * list up front would mostly be wasted.
+     */
+    private static int nextMove(MoveList moves, int[] scores, int i) {
+        int bestIndex = i;
+        for (int j = i + 1; j < moves.size(); j++) {
+            if (scores[j] > scores[bestIndex]) {
+                bestIndex = j;
+            }
+        }
+        if (bestIndex != i) {
+            moves.swap(i, bestIndex);
+            int score = scores[bestIndex];
+            scores[bestIndex] = scores[i];
+            scores[i] = score;
+        }
+        return moves.get(i);
+    }
+
+    private void rememberCutoff(int move, int depth, int ply) {
+        if (move != killers[ply][0]) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] fromHistory = history[Move.from(move)];
+        int to = Move.to(move);
+        fromHistory[to] += depth * depth;
+        if (fromHistory[to] >= KILLER_SCORE) {
+            for (int[] row : history) {
+                for (int square = 0; square < row.length; square++) {
+                    row[square] /= 2;
+                }
+            }
+        }
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][ply] = move;
+        int length = pvLength[ply + 1];
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, length - ply - 1);
+        pvLength[ply] = Math.max(length, ply + 1);
+    }
+
+    private static List<ChessMove> toChessMoves(int[] moves, int length) {
+        ChessMove[] line = new ChessMove[length];
+        for (int i = 0; i < length; i++) {
+            line[i] = Move.toChessMove(moves[i]);
+        }
+        return List.of(line);
+    }
+
+    /**
+     * Mate scores are stored relative to the node rather than the root, so an
+     * entry is still right when the same position is reached at another ply
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+}
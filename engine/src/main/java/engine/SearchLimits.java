@@ -0,0 +1,44 @@
+package engine;
+
+/**
+ * How much work a search may do. The search stops at whichever limit it
+ * reaches first; a limit of 0 means no limit of that kind. The depth limit is
+ * always capped at Search.MAX_DEPTH.
+ *
+ * @param maxDepth  deepest iteration to complete, in plies
+ * @param maxNodes  positions the main thread visits before stopping
+ * @param maxMillis wall-clock time before stopping
+ * @param threads   threads to search with (see ParallelSearch); Search itself
+ *                  always uses one
+ */
+public record SearchLimits(int maxDepth, long maxNodes, long maxMillis, int threads) {
+
+    public SearchLimits {
+        if (maxDepth < 0 || maxNodes < 0 || maxMillis < 0) {
+            throw new IllegalArgumentException("Search limits cannot be negative");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("A search needs at least one thread");
+        }
+    }
+
+    public SearchLimits(int maxDepth, long maxNodes, long maxMillis) {
+        this(maxDepth, maxNodes, maxMillis, 1);
+    }
+
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, 0, 0);
+    }
+
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(0, maxNodes, 0);
+    }
+
+    public static SearchLimits time(long maxMillis) {
+        return new SearchLimits(0, 0, maxMillis);
+    }
+
+    public SearchLimits withThreads(int threads) {
+        return new SearchLimits(maxDepth, maxNodes, maxMillis, threads);
+    }
+}
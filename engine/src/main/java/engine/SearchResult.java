@@ -0,0 +1,19 @@
+package engine;
+
+import chess.ChessMove;
+
+import java.util.List;
+
+/**
+ * The outcome of the deepest search iteration that finished
+ *
+ * @param bestMove           move to play, or null if the side to move has no legal moves
+ * @param principalVariation expected line of play, starting with bestMove
+ * @param score              centipawns from the side to move's point of view; see Search.isMateScore
+ * @param depth              depth of the last completed iteration
+ * @param nodes              positions visited, including quiescence
+ * @param millis             time spent searching
+ */
+public record SearchResult(ChessMove bestMove, List<ChessMove> principalVariation, int score, int depth,
+                           long nodes, long millis) {
+}
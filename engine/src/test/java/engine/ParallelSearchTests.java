@@ -0,0 +1,65 @@
+package engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.TranspositionTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+public class ParallelSearchTests {
+
+    @Test
+    public void findsMateInOneTest() {
+        ChessGame game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard("""
+                | | | | | | |k| |
+                | | | | | |p|p|p|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |P|P|P|
+                |R| | | | | |K| |
+                """));
+        SearchResult result = new ParallelSearch(new TranspositionTable(4))
+                .search(game, SearchLimits.depth(4).withThreads(4));
+
+        Assertions.assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null),
+                result.bestMove());
+        Assertions.assertEquals(Search.MATE - 1, result.score());
+    }
+
+    @Test
+    public void returnsOnDeadlineTest() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        long start = System.nanoTime();
+        SearchResult result = new ParallelSearch(new TranspositionTable(8))
+                .search(game, SearchLimits.time(300).withThreads(3));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        Assertions.assertTrue(millis < 1500, "search took " + millis + "ms");
+        Assertions.assertTrue(result.depth() >= 1);
+        Assertions.assertEquals(new ChessGame(), game, "search should not touch the caller's game");
+        for (ChessMove move : result.principalVariation()) {
+            game.makeMove(move);
+        }
+    }
+
+    @Test
+    public void reusableAcrossThreadCountsTest() {
+        ParallelSearch search = new ParallelSearch(new TranspositionTable(4));
+        for (int threads : new int[]{1, 4, 2}) {
+            SearchResult result = search.search(new ChessGame(), SearchLimits.depth(4).withThreads(threads));
+            Assertions.assertEquals(4, result.depth(), threads + " threads");
+            Assertions.assertNotNull(result.bestMove(), threads + " threads");
+        }
+    }
+
+    @Test
+    public void rejectsZeroThreadsTest() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SearchLimits.depth(1).withThreads(0));
+    }
+}
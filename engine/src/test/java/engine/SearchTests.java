@@ -0,0 +1,161 @@
+package engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.TranspositionTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+public class SearchTests {
+
+    @Test
+    public void findsMateInOneTest() {
+        ChessGame game = load("""
+                | | | | | | |k| |
+                | | | | | |p|p|p|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |P|P|P|
+                |R| | | | | |K| |
+                """, ChessGame.TeamColor.WHITE);
+        SearchResult result = new Search(new TranspositionTable(1)).search(game, SearchLimits.depth(4));
+
+        Assertions.assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null),
+                result.bestMove());
+        Assertions.assertTrue(Search.isMateScore(result.score()));
+        Assertions.assertEquals(Search.MATE - 1, result.score(), "mate should be found one ply deep");
+    }
+
+    @Test
+    public void capturesHangingQueenTest() {
+        ChessGame game = load("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |q| | | | |
+                | | | | | | | | |
+                | | |N| | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """, ChessGame.TeamColor.WHITE);
+        SearchResult result = new Search(new TranspositionTable(1)).search(game, SearchLimits.depth(4));
+
+        Assertions.assertEquals(new ChessMove(new ChessPosition(3, 3), new ChessPosition(5, 4), null),
+                result.bestMove());
+        Assertions.assertTrue(result.score() > 0);
+    }
+
+    @Test
+    public void avoidsLosingQueenTest() {
+        // the queen is attacked by a pawn and has to get out of the way (or take it)
+        ChessGame game = load("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |p| | | |
+                | | | |Q| | |p| |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """, ChessGame.TeamColor.WHITE);
+        SearchResult result = new Search(new TranspositionTable(1)).search(game, SearchLimits.depth(4));
+
+        Assertions.assertTrue(result.score() > 700, "white should stay about a queen up, got " + result.score());
+    }
+
+    @Test
+    public void principalVariationIsPlayableTest() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        SearchResult result = new Search(new TranspositionTable(4)).search(game, SearchLimits.depth(5));
+
+        Assertions.assertEquals(5, result.depth());
+        Assertions.assertFalse(result.principalVariation().isEmpty());
+        Assertions.assertEquals(result.bestMove(), result.principalVariation().get(0));
+        for (ChessMove move : result.principalVariation()) {
+            game.makeMove(move);
+        }
+    }
+
+    @Test
+    public void searchLeavesGameUnchangedTest() {
+        ChessGame game = new ChessGame();
+        new Search(new TranspositionTable(1)).search(game, SearchLimits.depth(3));
+
+        Assertions.assertEquals(new ChessGame(), game);
+        Assertions.assertEquals(0, game.getUndoDepth());
+    }
+
+    @Test
+    public void nodeLimitTest() {
+        SearchResult result = new Search(new TranspositionTable(1)).search(new ChessGame(), SearchLimits.nodes(5000));
+
+        Assertions.assertTrue(result.nodes() <= 5000, "searched " + result.nodes() + " nodes");
+        Assertions.assertNotNull(result.bestMove(), "a stopped search should still pick a move");
+    }
+
+    @Test
+    public void timeLimitTest() {
+        long start = System.nanoTime();
+        SearchResult result = new Search(new TranspositionTable(4)).search(new ChessGame(), SearchLimits.time(200));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        Assertions.assertTrue(millis < 1000, "search took " + millis + "ms");
+        Assertions.assertTrue(result.depth() >= 1);
+        Assertions.assertNotNull(result.bestMove());
+    }
+
+    @Test
+    public void noLegalMovesTest() {
+        ChessGame checkmated = load("""
+                |R| | | | | |k| |
+                | | | | | |p|p|p|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | |K| |
+                """, ChessGame.TeamColor.BLACK);
+        SearchResult mated = new Search(new TranspositionTable(1)).search(checkmated, SearchLimits.depth(3));
+        Assertions.assertNull(mated.bestMove());
+        Assertions.assertEquals(-Search.MATE, mated.score());
+
+        ChessGame stalemated = load("""
+                |k| | | | | | | |
+                | | |Q| | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | |K| |
+                """, ChessGame.TeamColor.BLACK);
+        SearchResult drawn = new Search(new TranspositionTable(1)).search(stalemated, SearchLimits.depth(3));
+        Assertions.assertNull(drawn.bestMove());
+        Assertions.assertEquals(0, drawn.score());
+    }
+
+    @Test
+    public void evaluationIsSymmetricTest() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(0, Evaluator.evaluate(game));
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(0, Evaluator.evaluate(game));
+
+        game.getBoard().removePiece(new ChessPosition(8, 4));
+        Assertions.assertEquals(-Evaluator.value(ChessPiece.PieceType.QUEEN) + 5, Evaluator.evaluate(game));
+    }
+
+    private static ChessGame load(String boardText, ChessGame.TeamColor turn) {
+        ChessGame game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard(boardText));
+        game.setTeamTurn(turn);
+        return game;
+    }
+}
@@ -0,0 +1,306 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.GameCodec;
+import exception.ResponseException;
+import model.GameData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Holds active games in memory in front of another SQLGameDAO, so that the
+ * websocket commands for a game in play never read the database.
+ * <p>
+ * A game is loaded the first time it is read, or when it is created. Game
+ * state changes from updateGame and endGame are only made in memory and the
+ * game is marked dirty; a background thread encodes each dirty game's
+ * latest state and stores it with writeGameState every flush interval, so
+ * any number of moves between flushes cost one write and no read. close()
+ * writes whatever is still dirty. Player changes (joinGame, leaveGame) are
+ * rare and are written through straight away.
+ * <p>
+ * Like the other DAOs, getGame hands back a copy of the game that callers
+ * can change freely; the change is kept by passing it to updateGame. The
+ * copy from the latest getGame is kept as it is rather than copied again,
+ * so updateGame must be its caller's last use of it: even reads such as
+ * getStatus fill in caches on the game. Games that are clean and have not
+ * been used for the idle timeout are dropped from memory.
+ * <p>
+ * Create one with start, which begins the background flushing.
+ */
+public class CachedGameDAO implements SQLGameDAO, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachedGameDAO.class);
+
+    private static final class Entry {
+        String white;
+        String black;
+        final String gameName;
+        ChessGame game;
+        // the copy most recently handed out by getGame, which updateGame can keep
+        ChessGame lent;
+        long lastUsed;
+        // set once dropped from the map; a change must then reload the game
+        boolean evicted = false;
+
+        Entry(GameData data) {
+            white = data.whiteUsername();
+            black = data.blackUsername();
+            gameName = data.gameName();
+            game = data.game();
+            lastUsed = System.nanoTime();
+        }
+
+        synchronized GameData snapshot(int gameID) {
+            lastUsed = System.nanoTime();
+            return new GameData(gameID, white, black, gameName, new ChessGame(game));
+        }
+
+        synchronized GameData lend(int gameID) {
+            GameData data = snapshot(gameID);
+            lent = data.game();
+            return data;
+        }
+    }
+
+    private final SQLGameDAO backing;
+    private final long idleTimeoutNanos;
+    private final ConcurrentHashMap<Integer, Entry> games = new ConcurrentHashMap<>();
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService flusher;
+    private volatile boolean closed = false;
+
+    private CachedGameDAO(SQLGameDAO backing, long idleTimeoutMillis) {
+        this.backing = backing;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        flusher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("game-write-behind").daemon().factory());
+    }
+
+    /**
+     * Creates the cache and starts writing dirty games back in the background
+     *
+     * @param backing             where games are loaded from and written back to
+     * @param flushIntervalMillis how often dirty games are written back
+     * @param idleTimeoutMillis   how long a clean game stays in memory unused
+     */
+    public static CachedGameDAO start(SQLGameDAO backing, long flushIntervalMillis, long idleTimeoutMillis) {
+        CachedGameDAO dao = new CachedGameDAO(backing, idleTimeoutMillis);
+        dao.flusher.scheduleWithFixedDelay(dao::flushAndEvict, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        return dao;
+    }
+
+    public int createGame(String gameName) throws ResponseException {
+        int gameID = backing.createGame(gameName);
+        games.putIfAbsent(gameID, new Entry(new GameData(gameID, null, null, gameName, new ChessGame())));
+        return gameID;
+    }
+
+    /**
+     * Lists the games from the backing DAO, with the state of cached games
+     * taken from memory since it may not have been written yet
+     */
+    public ArrayList<GameData> listGames() throws ResponseException {
+        ArrayList<GameData> gameList = backing.listGames();
+        for (int i = 0; i < gameList.size(); i++) {
+            Entry entry = games.get(gameList.get(i).gameID());
+            if (entry != null) {
+                gameList.set(i, entry.snapshot(gameList.get(i).gameID()));
+            }
+        }
+        return gameList;
+    }
+
+    public GameData getGame(int gameID) throws ResponseException {
+        Entry entry = entry(gameID);
+        return (entry == null) ? null : entry.lend(gameID);
+    }
+
+    public void joinGame(int gameID, String white, String black) throws ResponseException {
+        // load first, so a load racing the write cannot cache the old players
+        Entry entry = entry(gameID);
+        backing.joinGame(gameID, white, black);
+        if (entry != null) {
+            synchronized (entry) {
+                entry.white = (white != null) ? white : entry.white;
+                entry.black = (black != null) ? black : entry.black;
+            }
+        }
+    }
+
+    /**
+     * Keeps the game as the cached state. The copy from the latest getGame is
+     * kept as it is; any other game is copied, so the caller can go on
+     * changing it.
+     */
+    public void updateGame(int gameID, ChessGame game) throws ResponseException {
+        change(gameID, entry -> {
+            entry.game = (game == entry.lent) ? game : new ChessGame(game);
+            entry.lent = null;
+        });
+    }
+
+    /**
+     * Replaces the cached state with the decoded game, and marks it dirty
+     */
+    public void writeGameState(int gameID, byte[] state) throws ResponseException {
+        ChessGame game = GameCodec.decode(state);
+        change(gameID, entry -> {
+            entry.game = game;
+            entry.lent = null;
+        });
+    }
+
+    /**
+     * Checks the game exists against the cache; only an actual seat change
+     * reaches the backing DAO
+     */
+    public void leaveGame(int gameID, String color) throws ResponseException {
+        Entry entry = existing(gameID);
+        if (!Objects.equals(color, "WHITE") && !Objects.equals(color, "BLACK")) {
+            return;
+        }
+        backing.leaveGame(gameID, color);
+        synchronized (entry) {
+            if (Objects.equals(color, "WHITE")) {
+                entry.white = null;
+            } else if (Objects.equals(color, "BLACK")) {
+                entry.black = null;
+            }
+        }
+    }
+
+    public void endGame(int gameID) throws ResponseException {
+        change(gameID, entry -> entry.game.setEnded());
+    }
+
+    public void clear() throws ResponseException {
+        games.clear();
+        dirty.clear();
+        backing.clear();
+    }
+
+    /**
+     * Writes every dirty game back now. Flushes run one at a time, so an older
+     * state of a game can never be written over a newer one.
+     */
+    public synchronized void flush() {
+        for (Integer gameID : dirty) {
+            Entry entry = games.get(gameID);
+            if (entry == null) {
+                dirty.remove(gameID);
+                continue;
+            }
+            byte[] state;
+            synchronized (entry) {
+                dirty.remove(gameID);
+                state = GameCodec.encode(entry.game);
+            }
+            try {
+                backing.writeGameState(gameID, state);
+            } catch (ResponseException ex) {
+                if (ex.getCode() >= 500) {
+                    // try again on the next flush
+                    dirty.add(gameID);
+                }
+                LOG.warn("Failed to write game {}: {}", gameID, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return how many games are waiting to be written
+     */
+    public int dirtyCount() {
+        return dirty.size();
+    }
+
+    /**
+     * Stops the background flushing and writes every dirty game. Changes made
+     * after this are written through.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Changes a cached game's state and marks it dirty, under the entry's lock
+     * so that eviction sees the mark
+     */
+    private void change(int gameID, Consumer<Entry> change) throws ResponseException {
+        while (true) {
+            Entry entry = existing(gameID);
+            synchronized (entry) {
+                if (!entry.evicted) {
+                    change.accept(entry);
+                    entry.lastUsed = System.nanoTime();
+                    dirty.add(gameID);
+                    break;
+                }
+            }
+        }
+        if (closed) {
+            flush();
+        }
+    }
+
+    /**
+     * Runs on the flusher thread, so no write is in flight while games are
+     * evicted and a reload always sees the latest state
+     */
+    private void flushAndEvict() {
+        flush();
+        long now = System.nanoTime();
+        games.forEach((gameID, entry) -> {
+            synchronized (entry) {
+                if (now - entry.lastUsed > idleTimeoutNanos && !dirty.contains(gameID)) {
+                    entry.evicted = true;
+                    games.remove(gameID, entry);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the cached game, loading it if needed, or null if there is none
+     */
+    private Entry entry(int gameID) throws ResponseException {
+        Entry entry = games.get(gameID);
+        if (entry != null) {
+            return entry;
+        }
+        GameData data = backing.getGame(gameID);
+        if (data == null) {
+            return null;
+        }
+        Entry loaded = new Entry(data);
+        Entry raced = games.putIfAbsent(gameID, loaded);
+        return (raced != null) ? raced : loaded;
+    }
+
+    private Entry existing(int gameID) throws ResponseException {
+        Entry entry = entry(gameID);
+        if (entry == null) {
+            throw new ResponseException(400, "Error: game does not exist");
+        }
+        return entry;
+    }
+}
@@ -0,0 +1,401 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded pool of JDBC connections, so that a DAO call does not pay for a
+ * new TCP connection, login and setCatalog every time.
+ * <p>
+ * borrow hands out a wrapper whose close() returns the real connection to the
+ * pool instead of closing it, so callers keep using try-with-resources. Idle
+ * connections are reused newest first, which keeps the rest idle long enough
+ * to be evicted. A connection that sat idle for more than VALIDATE_AFTER_IDLE
+ * is checked with isValid, which costs a round trip, before it is handed out,
+ * since MySQL may have dropped it in the meantime. One returned more recently
+ * than that only gets an isClosed check: under load connections come back
+ * every few milliseconds and a round trip per borrow would cost more than
+ * the rare caller that finds a dropped connection and gets an SQLException.
+ * A background thread closes connections idle for longer than the idle
+ * timeout, down to the minimum, and opens new ones to get back up to it.
+ * <p>
+ * Each connection keeps a StatementCache, and prepareStatement on a lent
+ * connection goes through it.
+ */
+final class ConnectionPool implements AutoCloseable {
+
+    /**
+     * @param minIdle              connections kept open while the pool is quiet
+     * @param maxSize              most connections open at once, lent out or idle
+     * @param acquireTimeoutMillis how long borrow waits for a connection to be returned
+     * @param idleTimeoutMillis    how long an idle connection above minIdle is kept
+     * @param statementCacheSize   prepared statements cached per connection
+     */
+    record Settings(int minIdle, int maxSize, long acquireTimeoutMillis, long idleTimeoutMillis,
+                    int statementCacheSize) {
+
+        Settings {
+            if (maxSize < 1 || minIdle < 0 || minIdle > maxSize) {
+                throw new IllegalArgumentException("Pool needs 0 <= minIdle <= maxSize and maxSize >= 1, not "
+                        + minIdle + " and " + maxSize);
+            }
+        }
+
+        /**
+         * Reads the optional db.pool.* properties, using defaults for any not set
+         */
+        static Settings from(Properties props) {
+            return new Settings(
+                    Integer.parseInt(props.getProperty("db.pool.minIdle", "2")),
+                    Integer.parseInt(props.getProperty("db.pool.maxSize", "10")),
+                    Long.parseLong(props.getProperty("db.pool.acquireTimeoutMillis", "5000")),
+                    Long.parseLong(props.getProperty("db.pool.idleTimeoutMillis", "300000")),
+                    Integer.parseInt(props.getProperty("db.pool.statementCacheSize", "64")));
+        }
+    }
+
+    /**
+     * A snapshot of the pool
+     *
+     * @param active          connections lent out, or being opened for a borrower
+     * @param idle            connections open and waiting in the pool
+     * @param waiters         borrowers blocked until a connection is returned
+     * @param statementHits   prepareStatement calls answered from a StatementCache
+     * @param statementMisses prepareStatement calls that prepared a new statement
+     */
+    record Stats(int active, int idle, int waiters, long statementHits, long statementMisses) {
+
+    }
+
+    @FunctionalInterface
+    interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private record PooledConnection(Connection connection, StatementCache statements) {
+
+    }
+
+    private record IdleConnection(PooledConnection pooled, long since) {
+
+    }
+
+    private static final long VALIDATE_AFTER_IDLE = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final ConnectionFactory factory;
+    private final Settings settings;
+    private final ScheduledExecutorService maintenance;
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition returned = lock.newCondition();
+    // newest first
+    private final ArrayDeque<IdleConnection> idle = new ArrayDeque<>();
+    private int open = 0;
+    private int waiters = 0;
+    private boolean closed = false;
+
+    ConnectionPool(ConnectionFactory factory, Settings settings) {
+        this.factory = factory;
+        this.settings = settings;
+        maintenance = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("db-pool-maintenance").daemon().factory());
+        long period = Math.max(1000, settings.idleTimeoutMillis() / 2);
+        maintenance.scheduleWithFixedDelay(this::maintain, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Lends out a connection, waiting up to the acquire timeout if all of
+     * them are in use. Closing the returned connection gives it back.
+     *
+     * @throws SQLTimeoutException if no connection came free in time
+     */
+    Connection borrow() throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.acquireTimeoutMillis());
+        while (true) {
+            IdleConnection reused = takeOrReserve(deadline);
+            if (reused == null) {
+                return lend(openReserved());
+            }
+            PooledConnection pooled = reused.pooled();
+            boolean recent = System.nanoTime() - reused.since() < VALIDATE_AFTER_IDLE;
+            if (!isClosed(pooled.connection()) && (recent || isValid(pooled.connection()))) {
+                return lend(pooled);
+            }
+            discard(pooled);
+        }
+    }
+
+    Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(open - idle.size(), idle.size(), waiters, statementHits.sum(), statementMisses.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the idle connections and stops lending. Connections still lent
+     * out are closed as they are returned.
+     */
+    @Override
+    public void close() {
+        maintenance.shutdownNow();
+        List<IdleConnection> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            open -= idle.size();
+            idle.clear();
+            returned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (IdleConnection connection : toClose) {
+            closeQuietly(connection.pooled());
+        }
+    }
+
+    /**
+     * @return the newest idle connection, or null once a slot has been
+     * reserved for the caller to open a new one
+     */
+    private IdleConnection takeOrReserve(long deadline) throws SQLException {
+        lock.lock();
+        try {
+            while (true) {
+                if (closed) {
+                    throw new SQLException("Connection pool is closed");
+                }
+                if (!idle.isEmpty()) {
+                    return idle.pollFirst();
+                }
+                if (open < settings.maxSize()) {
+                    open++;
+                    return null;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new SQLTimeoutException("Timed out after " + settings.acquireTimeoutMillis()
+                            + " ms waiting for one of " + settings.maxSize() + " database connections");
+                }
+                waiters++;
+                try {
+                    returned.awaitNanos(remaining);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a database connection", ex);
+                } finally {
+                    waiters--;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private PooledConnection openReserved() throws SQLException {
+        try {
+            return newPooled(factory.open());
+        } catch (SQLException | RuntimeException ex) {
+            release();
+            throw ex;
+        }
+    }
+
+    private PooledConnection newPooled(Connection connection) {
+        return new PooledConnection(connection,
+                new StatementCache(connection, settings.statementCacheSize(), statementHits, statementMisses));
+    }
+
+    private Connection lend(PooledConnection pooled) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Lease(pooled));
+    }
+
+    /**
+     * Takes back a lent connection. Statements the borrower left open are put
+     * back in its cache, a connection left in a transaction is rolled back,
+     * and one that is broken or returned after the pool closed is closed
+     * instead of kept.
+     */
+    private void giveBack(PooledConnection pooled) {
+        pooled.statements().reclaim();
+        Connection connection = pooled.connection();
+        boolean reusable;
+        try {
+            reusable = !connection.isClosed();
+            if (reusable && !connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException ex) {
+            reusable = false;
+        }
+
+        if (reusable) {
+            lock.lock();
+            try {
+                if (!closed) {
+                    idle.addFirst(new IdleConnection(pooled, System.nanoTime()));
+                    returned.signal();
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        discard(pooled);
+    }
+
+    private void discard(PooledConnection pooled) {
+        closeQuietly(pooled);
+        release();
+    }
+
+    /**
+     * Frees the slot of a connection that was closed or never opened
+     */
+    private void release() {
+        lock.lock();
+        try {
+            open--;
+            returned.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes connections idle for longer than the idle timeout while there
+     * are more than minIdle, then opens connections up to minIdle
+     */
+    private void maintain() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(settings.idleTimeoutMillis());
+        List<PooledConnection> expired = new ArrayList<>();
+        int missing;
+        lock.lock();
+        try {
+            while (open > settings.minIdle() && !idle.isEmpty() && idle.peekLast().since() - cutoff < 0) {
+                expired.add(idle.pollLast().pooled());
+                open--;
+            }
+            missing = closed ? 0 : settings.minIdle() - open;
+            open += Math.max(missing, 0);
+        } finally {
+            lock.unlock();
+        }
+        for (PooledConnection pooled : expired) {
+            closeQuietly(pooled);
+        }
+
+        for (int i = 0; i < missing; i++) {
+            try {
+                giveBack(newPooled(factory.open()));
+            } catch (SQLException | RuntimeException ex) {
+                // the database is unreachable; borrowers will see the error
+                for (; i < missing; i++) {
+                    release();
+                }
+            }
+        }
+    }
+
+    private static boolean isClosed(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException ex) {
+            return true;
+        }
+    }
+
+    private static boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(PooledConnection pooled) {
+        pooled.statements().close();
+        try {
+            pooled.connection().close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    /**
+     * Forwards calls to a lent connection until it is closed, which returns it
+     * to the pool once
+     */
+    private class Lease implements InvocationHandler {
+        private PooledConnection pooled;
+
+        Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (pooled != null) {
+                        PooledConnection lent = pooled;
+                        pooled = null;
+                        giveBack(lent);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    if (pooled == null) {
+                        return true;
+                    }
+                }
+                case "prepareStatement" -> {
+                    if (pooled != null && StatementCache.handles(args)) {
+                        return pooled.statements().prepare((Connection) proxy, args);
+                    }
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled " + (pooled == null ? "(returned)" : pooled.connection());
+                }
+                default -> {
+                }
+            }
+            if (pooled == null) {
+                throw new SQLException("Connection has been returned to the pool");
+            }
+            try {
+                return method.invoke(pooled.connection(), args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
@@ -10,6 +10,7 @@ public class DatabaseManager {
     private static String dbUsername;
     private static String dbPassword;
     private static String connectionUrl;
+    private static volatile ConnectionPool pool;
 
     /*
      * Load the database information for the db.properties file.
@@ -32,10 +33,11 @@ public class DatabaseManager {
     }
 
     /**
-     * Create a connection to the database and sets the catalog based upon the
-     * properties specified in db.properties. Connections to the database should
-     * be short-lived, and you must close the connection when you are done with it.
-     * The easiest way to do that is with a try-with-resource block.
+     * Borrows a connection to the database from the pool, with the catalog set
+     * from the properties specified in db.properties. Connections to the database
+     * should be short-lived, and you must close the connection when you are done
+     * with it, which returns it to the pool. The easiest way to do that is with a
+     * try-with-resource block.
      * <br/>
      * <code>
      * try (var conn = DatabaseManager.getConnection()) {
@@ -46,14 +48,31 @@ public class DatabaseManager {
     static Connection getConnection() throws DataAccessException {
         try {
             //do not wrap the following line with a try-with-resources
-            var conn = DriverManager.getConnection(connectionUrl, dbUsername, dbPassword);
-            conn.setCatalog(databaseName);
-            return conn;
+            return pool.borrow();
         } catch (SQLException ex) {
             throw new DataAccessException("failed to get connection", ex);
         }
     }
 
+    /**
+     * @return how many pooled connections are in use, idle and waited for
+     */
+    static ConnectionPool.Stats getPoolStats() {
+        return pool.stats();
+    }
+
+    private static Connection openConnection(String url, String user, String password, String catalog)
+            throws SQLException {
+        var conn = DriverManager.getConnection(url, user, password);
+        try {
+            conn.setCatalog(catalog);
+        } catch (SQLException ex) {
+            conn.close();
+            throw ex;
+        }
+        return conn;
+    }
+
     private static void loadPropertiesFromResources() {
         try (var propStream = Thread.currentThread().getContextClassLoader().getResourceAsStream("db.properties")) {
             if (propStream == null) {
@@ -74,6 +93,19 @@ public class DatabaseManager {
 
         var host = props.getProperty("db.host");
         var port = Integer.parseInt(props.getProperty("db.port"));
-        connectionUrl = String.format("jdbc:mysql://%s:%d", host, port);
+        // server-side prepares, so the statements ConnectionPool caches are only parsed once
+        connectionUrl = String.format("jdbc:mysql://%s:%d?useServerPrepStmts=true", host, port);
+
+        ConnectionPool old = pool;
+        String url = connectionUrl;
+        String user = dbUsername;
+        String password = dbPassword;
+        String catalog = databaseName;
+        pool = new ConnectionPool(() -> openConnection(url, user, password, catalog),
+                ConnectionPool.Settings.from(props));
+        if (old != null) {
+            // connections still lent out from the old pool are closed when returned
+            old.close();
+        }
     }
 }
@@ -0,0 +1,44 @@
+package dataaccess;
+
+import exception.ResponseException;
+import model.*;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps auth tokens in memory, for tests and benchmarks that should not need MySQL
+ */
+public class MemoryAuthDAO implements SQLAuthDAO {
+    private final ConcurrentHashMap<String, AuthData> auths = new ConcurrentHashMap<>();
+
+    public AuthData createAuth(UserData u) throws ResponseException {
+        if ((u == null) || (u.getUser() == null)) {
+            throw new ResponseException(400, "bad request");
+        }
+        AuthData newToken = new AuthData(UUID.randomUUID().toString(), u.getUser());
+        auths.put(newToken.getToken(), newToken);
+        return newToken;
+    }
+
+    public AuthData findAuth(String token) {
+        return (token == null) ? null : auths.get(token);
+    }
+
+    public AuthData findAuthUser(String username) {
+        for (AuthData auth : auths.values()) {
+            if (auth.getUser().equals(username)) {
+                return auth;
+            }
+        }
+        return null;
+    }
+
+    public void deleteAuth(AuthData a) {
+        auths.remove(a.getToken());
+    }
+
+    public void clear() {
+        auths.clear();
+    }
+}
@@ -0,0 +1,94 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.GameCodec;
+import exception.ResponseException;
+import model.GameData;
+
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps games in memory, for tests and benchmarks that should not need MySQL.
+ * Games are held as GameCodec bytes, so like MySQLGameDAO every getGame hands
+ * back a new ChessGame that callers can change without touching the store.
+ */
+public class MemoryGameDAO implements SQLGameDAO {
+    private record Row(String white, String black, String gameName, byte[] game) {}
+
+    private final ConcurrentSkipListMap<Integer, Row> games = new ConcurrentSkipListMap<>();
+    private final AtomicInteger nextID = new AtomicInteger(1000);
+
+    public int createGame(String gameName) throws ResponseException {
+        if (gameName == null) {
+            throw new ResponseException(400, "Error: bad request");
+        }
+        int gameID = nextID.getAndIncrement();
+        games.put(gameID, new Row(null, null, gameName, GameCodec.encode(new ChessGame())));
+        return gameID;
+    }
+
+    public ArrayList<GameData> listGames() {
+        ArrayList<GameData> gameList = new ArrayList<>();
+        for (var entry : games.entrySet()) {
+            gameList.add(toGameData(entry.getKey(), entry.getValue()));
+        }
+        return gameList;
+    }
+
+    public GameData getGame(int gameID) {
+        Row row = games.get(gameID);
+        return (row == null) ? null : toGameData(gameID, row);
+    }
+
+    public void joinGame(int gameID, String white, String black) throws ResponseException {
+        if ((white == null) && (black == null)) {
+            throw new ResponseException(400, "Error: bad request");
+        }
+        Row row = existing(gameID);
+        games.put(gameID, new Row(white != null ? white : row.white(), black != null ? black : row.black(),
+                row.gameName(), row.game()));
+    }
+
+    public void updateGame(int gameID, ChessGame game) throws ResponseException {
+        Row row = existing(gameID);
+        games.put(gameID, new Row(row.white(), row.black(), row.gameName(), GameCodec.encode(game)));
+    }
+
+    public void writeGameState(int gameID, byte[] state) {
+        games.computeIfPresent(gameID, (id, row) -> new Row(row.white(), row.black(), row.gameName(), state));
+    }
+
+    public void leaveGame(int gameID, String color) throws ResponseException {
+        Row row = existing(gameID);
+        if (Objects.equals(color, "WHITE")) {
+            games.put(gameID, new Row(null, row.black(), row.gameName(), row.game()));
+        } else if (Objects.equals(color, "BLACK")) {
+            games.put(gameID, new Row(row.white(), null, row.gameName(), row.game()));
+        }
+    }
+
+    public void endGame(int gameID) throws ResponseException {
+        ChessGame game = GameCodec.decode(existing(gameID).game());
+        game.setEnded();
+        updateGame(gameID, game);
+    }
+
+    public void clear() {
+        games.clear();
+    }
+
+    private Row existing(int gameID) throws ResponseException {
+        Row row = games.get(gameID);
+        if (row == null) {
+            throw new ResponseException(400, "Error: game does not exist");
+        }
+        return row;
+    }
+
+    private static GameData toGameData(int gameID, Row row) {
+        return new GameData(gameID, row.white(), row.black(), row.gameName(), GameCodec.decode(row.game()));
+    }
+}
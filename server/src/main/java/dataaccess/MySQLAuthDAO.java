@@ -7,10 +7,6 @@ import java.sql.*;
 import java.util.UUID;
 
 public class MySQLAuthDAO implements SQLAuthDAO, SQLDAO{
-    public MySQLAuthDAO() throws ResponseException {
-        SQLDAO.configureDatabase(CREATE_AUTH);
-    }
-
     public AuthData createAuth(UserData u) throws ResponseException {
         String token = UUID.randomUUID().toString();
         if ((u == null) || (u.getUser() == null)) {
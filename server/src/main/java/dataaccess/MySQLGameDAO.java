@@ -1,17 +1,34 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.GameCodec;
 import exception.ResponseException;
 import model.*;
+import serialization.Serializer;
+
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.Objects;
 
-import com.google.gson.Gson;
-
 public class MySQLGameDAO implements SQLGameDAO, SQLDAO{
-    public MySQLGameDAO() throws ResponseException{
-        SQLDAO.configureDatabase(CREATE_GAMES);
+    /**
+     * How game state is written. BINARY stores the GameCodec bytes in the
+     * gameState column and leaves game empty; JSON stores Gson text in game.
+     * Rows in either format can be read back in both modes.
+     */
+    public enum Storage {
+        JSON,
+        BINARY
+    }
+
+    private final Storage storage;
+
+    public MySQLGameDAO() {
+        this(Storage.BINARY);
+    }
+
+    public MySQLGameDAO(Storage storage) {
+        this.storage = storage;
     }
 
     public int createGame(String gameName) throws ResponseException {
@@ -20,13 +37,15 @@ public class MySQLGameDAO implements SQLGameDAO, SQLDAO{
         }
 
         ChessGame newGame = new ChessGame();
-        String state = "INSERT INTO games (whiteUser, blackUser, gameName, game) VALUES (?, ?, ?, ?)";
-        var jsonGame = new Gson().toJson(newGame);
-        return SQLDAO.executeUpdate(state, "", "", gameName, jsonGame);
+        String state = "INSERT INTO games (whiteUser, blackUser, gameName, game, gameState) VALUES (?, ?, ?, ?, ?)";
+        if (storage == Storage.BINARY) {
+            return SQLDAO.executeUpdate(state, "", "", gameName, "", GameCodec.encode(newGame));
+        }
+        return SQLDAO.executeUpdate(state, "", "", gameName, Serializer.GSON.toJson(newGame), null);
     }
 
     public ArrayList<GameData> listGames() throws ResponseException {
-        String state = "SELECT gameID, whiteUser, blackUser, gameName, game FROM games";
+        String state = "SELECT gameID, whiteUser, blackUser, gameName, game, gameState FROM games";
         ArrayList<GameData> gameList = new ArrayList<>();
         try (Connection conn = DatabaseManager.getConnection()) {
             try (PreparedStatement ps = conn.prepareStatement(state)) {
@@ -44,7 +63,7 @@ public class MySQLGameDAO implements SQLGameDAO, SQLDAO{
     }
 
     public GameData getGame(int gameID) throws ResponseException {
-        String state = "SELECT gameID, whiteUser, blackUser, gameName, game FROM games WHERE gameID=?";
+        String state = "SELECT gameID, whiteUser, blackUser, gameName, game, gameState FROM games WHERE gameID=?";
         try (Connection conn = DatabaseManager.getConnection()) {
             try (PreparedStatement ps = conn.prepareStatement(state)) {
                 ps.setInt(1, gameID);
@@ -101,32 +120,65 @@ public class MySQLGameDAO implements SQLGameDAO, SQLDAO{
             black = null;
         }
         String gname = rs.getString("gameName");
-        var gameJSON = rs.getString("game");
-        ChessGame game = new Gson().fromJson(gameJSON, ChessGame.class);
+        byte[] gameState = rs.getBytes("gameState");
+        ChessGame game;
+        if (gameState != null) {
+            game = GameCodec.decode(gameState);
+        } else {
+            game = Serializer.GSON.fromJson(rs.getString("game"), ChessGame.class);
+        }
 
         return new GameData(gameID, white, black, gname, game);
     }
 
-    public void updateGame(int gameID, String game) throws ResponseException {
+    public void updateGame(int gameID, ChessGame game) throws ResponseException {
         GameData oldGame = getGame(gameID);
         if (oldGame == null) {
             throw new ResponseException(400, "Error: old game does not exist");
         }
-        var statement = "UPDATE games SET game=? WHERE gameID=?";
-        SQLDAO.executeUpdate(statement, game, gameID);
+        writeGame(gameID, game);
     }
 
-    public void leaveGame(int gameID, String color) throws ResponseException {
-        GameData game = getGame(gameID);
-        if (game == null) {
-            throw new ResponseException(400, "Error: game does not exist");
+    private void writeGame(int gameID, ChessGame game) throws ResponseException {
+        storeGame(gameID, game, null);
+    }
+
+    public void writeGameState(int gameID, byte[] state) throws ResponseException {
+        storeGame(gameID, null, state);
+    }
+
+    /**
+     * The one place game state is written. Takes the game, its GameCodec
+     * bytes or both, and only converts when the storage mode needs the other.
+     */
+    private void storeGame(int gameID, ChessGame game, byte[] state) throws ResponseException {
+        var statement = "UPDATE games SET game=?, gameState=? WHERE gameID=?";
+        if (storage == Storage.BINARY) {
+            SQLDAO.executeUpdate(statement, "", (state != null) ? state : GameCodec.encode(game), gameID);
+        } else {
+            ChessGame json = (game != null) ? game : GameCodec.decode(state);
+            SQLDAO.executeUpdate(statement, Serializer.GSON.toJson(json), null, gameID);
         }
+    }
+
+    /**
+     * Clears a player's seat. The update's row count shows whether the game
+     * exists, so the game is not read first.
+     */
+    public void leaveGame(int gameID, String color) throws ResponseException {
+        String statement;
         if (Objects.equals(color, "WHITE")) {
-            var statement = "UPDATE games SET whiteUser=? WHERE gameID=?";
-            SQLDAO.executeUpdate(statement, "", gameID);
+            statement = "UPDATE games SET whiteUser=? WHERE gameID=?";
         } else if (Objects.equals(color, "BLACK")) {
-            var statement = "UPDATE games SET blackUser=? WHERE gameID=?";
-            SQLDAO.executeUpdate(statement, "", gameID);
+            statement = "UPDATE games SET blackUser=? WHERE gameID=?";
+        } else {
+            if (getGame(gameID) == null) {
+                throw new ResponseException(400, "Error: game does not exist");
+            }
+            return;
+        }
+        if (SQLDAO.executeUpdateCount(statement, "", gameID) == 0) {
+            throw new ResponseException(400, "Error: game does not exist");
         }
     }
 
@@ -136,8 +188,6 @@ public class MySQLGameDAO implements SQLGameDAO, SQLDAO{
             throw new ResponseException(400, "Error: game does not exist");
         }
         oldGame.getChess().setEnded();
-        String jsonGame = new Gson().toJson(oldGame.getChess());
-        var statement = "UPDATE games SET game=? WHERE gameID=?";
-        SQLDAO.executeUpdate(statement, jsonGame, gameID);
+        writeGame(gameID, oldGame.getChess());
     }
 }
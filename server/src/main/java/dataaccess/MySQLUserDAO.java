@@ -6,10 +6,6 @@ import org.mindrot.jbcrypt.BCrypt;
 import java.sql.*;
 
 public class MySQLUserDAO implements SQLUserDAO, SQLDAO{
-    public MySQLUserDAO() throws ResponseException {
-        SQLDAO.configureDatabase(CREATE_USERS);
-    }
-
     public void clear() throws ResponseException {
         String state = "TRUNCATE users";
         SQLDAO.executeUpdate(state);
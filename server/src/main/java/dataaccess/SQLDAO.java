@@ -6,63 +6,27 @@ import static java.sql.Statement.RETURN_GENERATED_KEYS;
 import static java.sql.Types.NULL;
 
 public interface SQLDAO {
-    String[] CREATE_USERS = {
-            """
-            CREATE TABLE IF NOT EXISTS users (
-            `username` varchar(255) NOT NULL,
-            `password` varchar(255) NOT NULL,
-            `email` varchar(255) NOT NULL,
-            PRIMARY KEY (`username`)
-            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
-            """
-    };
-
-    String[] CREATE_AUTH = {
-            """
-            CREATE TABLE IF NOT EXISTS auths (
-            `username` varchar(255) NOT NULL,
-            `authToken` varchar(255) NOT NULL,
-            PRIMARY KEY (`authToken`),
-            INDEX (`authToken`),
-            INDEX (`username`)
-            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
-            """
-    };
-
-    String[] CREATE_GAMES = {
-            """
-            CREATE TABLE IF NOT EXISTS games (
-            `gameID` INT NOT NULL AUTO_INCREMENT,
-            `whiteUser` varchar(255),
-            `blackUser` varchar(255),
-            `gameName` varchar(255),
-            `game` TEXT NOT NULL,
-            PRIMARY KEY (`gameID`),
-            INDEX (`gameName`)
-            ) AUTO_INCREMENT=1000 ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
-            """
-    };
-
-    static void configureDatabase(String [] createStatement) throws ResponseException {
-        DatabaseManager.createDatabase();
-        try (Connection conn = DatabaseManager.getConnection()) {
-            for (String statement : createStatement) {
-                try (PreparedStatement ps = conn.prepareStatement(statement)) {
-                    ps.executeUpdate();
-                }
+    static int executeUpdate(String statement, Object... params) throws ResponseException {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(statement, RETURN_GENERATED_KEYS)) {
+            setParameters(ps, params);
+            ps.executeUpdate();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                return rs.next() ? rs.getInt(1) : 0;
             }
-        } catch (SQLException | DataAccessException sqlex) {
-            throw new ResponseException(500, "Error: failed to configure the database");
+        } catch (SQLException | DataAccessException e) {
+            throw new ResponseException(500, "Error: Unable to access database");
         }
     }
 
-    static int executeUpdate(String statement, Object... params) throws ResponseException {
+    /**
+     * @return how many rows the statement matched
+     */
+    static int executeUpdateCount(String statement, Object... params) throws ResponseException {
         try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement ps = conn.prepareStatement(statement, RETURN_GENERATED_KEYS)) {
+             PreparedStatement ps = conn.prepareStatement(statement)) {
             setParameters(ps, params);
-            ps.executeUpdate();
-            ResultSet rs = ps.getGeneratedKeys();
-            return rs.next() ? rs.getInt(1) : 0;
+            return ps.executeUpdate();
         } catch (SQLException | DataAccessException e) {
             throw new ResponseException(500, "Error: Unable to access database");
         }
@@ -73,6 +37,7 @@ public interface SQLDAO {
             switch (params[i]) {
                 case String p -> ps.setString(i + 1, p);
                 case Integer p -> ps.setInt(i + 1, p);
+                case byte[] p -> ps.setBytes(i + 1, p);
                 case null -> ps.setNull(i + 1, NULL);
                 default -> {}
             }
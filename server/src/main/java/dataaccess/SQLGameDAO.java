@@ -1,5 +1,6 @@
 package dataaccess;
 
+import chess.ChessGame;
 import exception.ResponseException;
 import model.*;
 
@@ -10,5 +11,14 @@ public interface SQLGameDAO {
     int createGame(String gameName) throws ResponseException;
     GameData getGame(int gameID) throws ResponseException;
     void joinGame(int gameID, String white, String black) throws ResponseException;
+    void updateGame(int gameID, ChessGame game) throws ResponseException;
+
+    /**
+     * Stores a game's GameCodec bytes over its current state without reading
+     * the row first. Does nothing if the game does not exist.
+     */
+    void writeGameState(int gameID, byte[] state) throws ResponseException;
+    void leaveGame(int gameID, String color) throws ResponseException;
+    void endGame(int gameID) throws ResponseException;
     void clear() throws ResponseException;
 }
@@ -0,0 +1,197 @@
+package dataaccess;
+
+import exception.ResponseException;
+
+import java.sql.*;
+import java.util.List;
+
+/**
+ * Creates and upgrades the database schema. Migrations run in version order
+ * and each one is recorded in the schema_version table once applied, so the
+ * server runs this once at startup and, against an up to date database, it
+ * costs a single query. The DAOs assume it has run and do no DDL themselves.
+ * <p>
+ * Migrations run while holding a MySQL named lock, so servers starting
+ * against the same database at once apply each migration once: the others
+ * wait, then find it already recorded.
+ * <p>
+ * To change the schema, add a migration to the end of MIGRATIONS; never edit
+ * one that has shipped. Databases created before migrations existed already
+ * have the tables, which is why the early ones are written to be safe to
+ * apply twice.
+ */
+public final class SchemaManager {
+
+    @FunctionalInterface
+    private interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private record Migration(int version, String description, Step step) {
+
+    }
+
+    private static final String CREATE_VERSIONS =
+            """
+            CREATE TABLE IF NOT EXISTS schema_version (
+            `version` INT NOT NULL,
+            `description` varchar(255) NOT NULL,
+            `appliedAt` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+            PRIMARY KEY (`version`)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
+            """;
+
+    private static final String CREATE_USERS =
+            """
+            CREATE TABLE IF NOT EXISTS users (
+            `username` varchar(255) NOT NULL,
+            `password` varchar(255) NOT NULL,
+            `email` varchar(255) NOT NULL,
+            PRIMARY KEY (`username`)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
+            """;
+
+    private static final String CREATE_AUTH =
+            """
+            CREATE TABLE IF NOT EXISTS auths (
+            `username` varchar(255) NOT NULL,
+            `authToken` varchar(255) NOT NULL,
+            PRIMARY KEY (`authToken`),
+            INDEX (`authToken`),
+            INDEX (`username`)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
+            """;
+
+    private static final String CREATE_GAMES =
+            """
+            CREATE TABLE IF NOT EXISTS games (
+            `gameID` INT NOT NULL AUTO_INCREMENT,
+            `whiteUser` varchar(255),
+            `blackUser` varchar(255),
+            `gameName` varchar(255),
+            `game` TEXT NOT NULL,
+            PRIMARY KEY (`gameID`),
+            INDEX (`gameName`)
+            ) AUTO_INCREMENT=1000 ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
+            """;
+
+    private static final String LOCK_NAME = "chess_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "users, auths and games tables",
+                    conn -> execute(conn, CREATE_USERS, CREATE_AUTH, CREATE_GAMES)),
+            new Migration(2, "binary game state",
+                    conn -> addColumnIfMissing(conn, "games", "gameState", "BLOB"))
+    );
+
+    private SchemaManager() {
+
+    }
+
+    /**
+     * Creates the database if needed and applies any migrations it is missing
+     */
+    public static synchronized void migrate() throws ResponseException {
+        DatabaseManager.createDatabase();
+        try (Connection conn = DatabaseManager.getConnection()) {
+            lock(conn);
+            try {
+                execute(conn, CREATE_VERSIONS);
+                int current = currentVersion(conn);
+                for (Migration migration : MIGRATIONS) {
+                    if (migration.version() > current) {
+                        migration.step().apply(conn);
+                        recordVersion(conn, migration);
+                    }
+                }
+            } finally {
+                unlock(conn);
+            }
+        } catch (SQLException | DataAccessException ex) {
+            throw new ResponseException(500, "Error: failed to configure the database");
+        }
+    }
+
+    /**
+     * @return the version the schema is at once migrate has run
+     */
+    public static int latestVersion() {
+        return MIGRATIONS.getLast().version();
+    }
+
+    /**
+     * @return the newest migration applied to the database, or 0 for none
+     */
+    public static int currentVersion() throws ResponseException {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            return currentVersion(conn);
+        } catch (SQLException | DataAccessException ex) {
+            throw new ResponseException(500, "Error: failed to read the schema version");
+        }
+    }
+
+    private static int currentVersion(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT MAX(version) FROM schema_version");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Waits for the named lock, which MySQL holds for this connection's
+     * session until it is released
+     */
+    private static void lock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for another server to finish migrating");
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases the named lock before the connection goes back to the pool
+     */
+    private static void unlock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        }
+    }
+
+    private static void recordVersion(Connection conn, Migration migration) throws SQLException {
+        String statement = "INSERT INTO schema_version (version, description) VALUES (?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(statement)) {
+            ps.setInt(1, migration.version());
+            ps.setString(2, migration.description());
+            ps.executeUpdate();
+        }
+    }
+
+    private static void execute(Connection conn, String... statements) throws SQLException {
+        for (String statement : statements) {
+            try (PreparedStatement ps = conn.prepareStatement(statement)) {
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Adds a column to a table created before the column existed, looking it
+     * up in the connection's metadata first
+     */
+    private static void addColumnIfMissing(Connection conn, String table, String column, String definition)
+            throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, table, column)) {
+            if (rs.next()) {
+                return;
+            }
+        }
+        execute(conn, "ALTER TABLE " + table + " ADD COLUMN `" + column + "` " + definition);
+    }
+}
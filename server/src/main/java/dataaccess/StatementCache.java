@@ -0,0 +1,207 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps one pooled connection's prepared statements open between borrows,
+ * keyed by SQL text, so the DAOs' identical statements are prepared once per
+ * connection instead of once per call. The connection URL turns on
+ * useServerPrepStmts, so each one is parsed and planned by MySQL once and
+ * later executions only send the parameters.
+ * <p>
+ * A statement is taken out of the cache while it is in use and put back when
+ * closed, so using the same SQL twice at once gets two statements. Once more
+ * than the limit are cached, the least recently used is closed.
+ * <p>
+ * When the connection goes back to the pool, reclaim puts back any statement
+ * the borrower did not close and makes its wrapper unusable, so a statement
+ * closed late cannot change the cache while the next borrower is using it.
+ * The methods are synchronized for the case where that late close happens on
+ * another thread; otherwise only the current borrower's thread takes the lock.
+ */
+final class StatementCache {
+
+    /**
+     * @param autoGeneratedKeys the prepareStatement argument, or NO_KEYS_ARGUMENT
+     */
+    private record Key(String sql, int autoGeneratedKeys) {
+
+    }
+
+    /**
+     * A statement lent out and not yet put back
+     */
+    private static final class Loan {
+        final Key key;
+        final PreparedStatement statement;
+        // read without the lock by the wrapper, so a returned one fails fast
+        volatile boolean returned = false;
+
+        Loan(Key key, PreparedStatement statement) {
+            this.key = key;
+            this.statement = statement;
+        }
+    }
+
+    private static final int NO_KEYS_ARGUMENT = -1;
+
+    private final Connection connection;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    // least recently returned first
+    private final LinkedHashMap<Key, PreparedStatement> statements;
+    private final ArrayList<Loan> lent = new ArrayList<>();
+
+    StatementCache(Connection connection, int capacity, LongAdder hits, LongAdder misses) {
+        this.connection = connection;
+        this.hits = hits;
+        this.misses = misses;
+        statements = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, PreparedStatement> eldest) {
+                if (size() <= capacity) {
+                    return false;
+                }
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return true for the prepareStatement overloads the cache handles:
+     * (sql) and (sql, autoGeneratedKeys)
+     */
+    static boolean handles(Object[] args) {
+        return args != null && (args.length == 1 || (args.length == 2 && args[1] instanceof Integer));
+    }
+
+    /**
+     * Lends out a cached statement for the SQL, or prepares one. Closing the
+     * returned statement clears its parameters and caches it again.
+     *
+     * @param owner the connection the statement should report as its own
+     */
+    synchronized PreparedStatement prepare(Connection owner, Object[] args) throws SQLException {
+        Key key = new Key((String) args[0], (args.length == 2) ? (Integer) args[1] : NO_KEYS_ARGUMENT);
+        PreparedStatement statement = statements.remove(key);
+        if (statement == null || statement.isClosed()) {
+            misses.increment();
+            statement = (key.autoGeneratedKeys() == NO_KEYS_ARGUMENT) ? connection.prepareStatement(key.sql())
+                    : connection.prepareStatement(key.sql(), key.autoGeneratedKeys());
+        } else {
+            hits.increment();
+        }
+        Loan loan = new Loan(key, statement);
+        lent.add(loan);
+        return lend(owner, loan);
+    }
+
+    /**
+     * Puts back every statement still lent out, as the connection is returned
+     * to the pool; their wrappers then act closed
+     */
+    synchronized void reclaim() {
+        List<Loan> outstanding = new ArrayList<>(lent);
+        for (Loan loan : outstanding) {
+            giveBack(loan);
+        }
+    }
+
+    /**
+     * Closes every cached statement, before the connection itself is closed
+     */
+    synchronized void close() {
+        reclaim();
+        List<PreparedStatement> cached = new ArrayList<>(statements.values());
+        statements.clear();
+        for (PreparedStatement statement : cached) {
+            closeQuietly(statement);
+        }
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+
+    private PreparedStatement lend(Connection owner, Loan loan) {
+        PreparedStatement statement = loan.statement;
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close" -> {
+                            synchronized (this) {
+                                giveBack(loan);
+                            }
+                            return null;
+                        }
+                        case "isClosed" -> {
+                            if (loan.returned) {
+                                return true;
+                            }
+                        }
+                        case "getConnection" -> {
+                            return owner;
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        default -> {
+                        }
+                    }
+                    if (loan.returned) {
+                        throw new SQLException("Statement has been closed");
+                    }
+                    try {
+                        return method.invoke(statement, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+    }
+
+    /**
+     * Caches a lent statement again, once; the caller holds the lock
+     */
+    private void giveBack(Loan loan) {
+        if (loan.returned) {
+            return;
+        }
+        loan.returned = true;
+        lent.remove(loan);
+        PreparedStatement statement = loan.statement;
+        try {
+            if (statement.isClosed()) {
+                return;
+            }
+            statement.clearParameters();
+        } catch (SQLException ex) {
+            closeQuietly(statement);
+            return;
+        }
+        PreparedStatement displaced = statements.put(loan.key, statement);
+        if (displaced != null) {
+            // the same SQL was in use twice; keep the newer statement
+            closeQuietly(displaced);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
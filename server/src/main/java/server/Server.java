@@ -1,53 +1,43 @@
 package server;
 
+import dataaccess.CachedGameDAO;
 import dataaccess.MySQLAuthDAO;
 import dataaccess.MySQLGameDAO;
 import dataaccess.MySQLUserDAO;
+import dataaccess.SchemaManager;
 import io.javalin.*;
-import com.google.gson.Gson;
 import io.javalin.http.Context;
 import exception.ResponseException;
+import serialization.Serializer;
 import service.MySQLGameService;
 import service.MySQLUserService;
 import service.MySQLAuthService;
+import websocket.GameSequencer;
 import websocket.WebsocketHandler;
 
 public class Server {
 
-    private final Javalin javalin;
-    private final MySQLUserDAO userDAO;
-    {
-        try {
-            userDAO = new MySQLUserDAO();
-        } catch (ResponseException re) {
-            throw new RuntimeException(re);
-        }
-    }
-
-    private final MySQLGameDAO gameDAO;
-    {
-        try {
-            gameDAO = new MySQLGameDAO();
-        } catch (ResponseException re) {
-            throw new RuntimeException(re);
-        }
-    }
+    // how often moves are written to MySQL, and how long an unused game stays in memory
+    private static final long GAME_FLUSH_MILLIS = Long.getLong("chess.gameFlushMillis", 250);
+    private static final long GAME_IDLE_MILLIS = Long.getLong("chess.gameIdleMillis", 600_000);
 
-    private final MySQLAuthDAO authDAO;
-    {
-        try {
-            authDAO = new MySQLAuthDAO();
-        } catch (ResponseException re) {
-            throw new RuntimeException(re);
-        }
-    }
+    private final Javalin javalin;
+    private final MySQLUserDAO userDAO = new MySQLUserDAO();
+    private final CachedGameDAO gameDAO = CachedGameDAO.start(new MySQLGameDAO(), GAME_FLUSH_MILLIS, GAME_IDLE_MILLIS);
+    private final MySQLAuthDAO authDAO = new MySQLAuthDAO();
+    private final GameSequencer sequencer = new GameSequencer();
 
     private final MySQLUserService userService = new MySQLUserService(userDAO, authDAO);
     private final MySQLGameService gameService = new MySQLGameService(gameDAO, authDAO);
     private final MySQLAuthService authService = new MySQLAuthService(authDAO);
 
     public Server() {
-        WebsocketHandler wsh = new WebsocketHandler();
+        try {
+            SchemaManager.migrate();
+        } catch (ResponseException re) {
+            throw new RuntimeException(re);
+        }
+        WebsocketHandler wsh = new WebsocketHandler(gameDAO, authDAO, sequencer);
         javalin = Javalin.create(config -> config.staticFiles.add("web"))
                 .post("/user", this::register)
                 .delete("/db", this::clear)
@@ -72,6 +62,9 @@ public class Server {
 
     public void stop() {
         javalin.stop();
+        // let queued commands finish before the last game states are written
+        sequencer.close();
+        gameDAO.close();
     }
 
     private void clear(Context ctx) throws ResponseException {
@@ -82,43 +75,43 @@ public class Server {
     }
 
     private void register(Context ctx) throws ResponseException {
-        MySQLUserService.RegisterRequest reg = new Gson().fromJson(ctx.body(), MySQLUserService.RegisterRequest.class);
+        MySQLUserService.RegisterRequest reg = Serializer.GSON.fromJson(ctx.body(), MySQLUserService.RegisterRequest.class);
         var res = userService.register(reg);
-        ctx.result(new Gson().toJson(res));
+        ctx.result(Serializer.GSON.toJson(res));
     }
 
     private void login(Context ctx) throws ResponseException {
-        MySQLUserService.LoginRequest req = new Gson().fromJson(ctx.body(), MySQLUserService.LoginRequest.class);
+        MySQLUserService.LoginRequest req = Serializer.GSON.fromJson(ctx.body(), MySQLUserService.LoginRequest.class);
         var res = userService.login(req);
-        ctx.result(new Gson().toJson(res));
+        ctx.result(Serializer.GSON.toJson(res));
     }
 
     private void logout(Context ctx) throws ResponseException {
         String token = ctx.header("authorization");
         MySQLUserService.LogoutRequest req = new MySQLUserService.LogoutRequest(token);
         var res = userService.logout(req);
-        ctx.result(new Gson().toJson(res));
+        ctx.result(Serializer.GSON.toJson(res));
     }
 
     private void listGames(Context ctx) throws ResponseException {
         String token = ctx.header("authorization");
         MySQLGameService.ListGamesRequest req = new MySQLGameService.ListGamesRequest(token);
         var res = gameService.listGames(req);
-        ctx.result(new Gson().toJson(res));
+        ctx.result(Serializer.GSON.toJson(res));
     }
 
     private void createGame(Context ctx) throws ResponseException {
-        MySQLGameService.CreateGameRequest req = new Gson().fromJson(ctx.body(), MySQLGameService.CreateGameRequest.class);
+        MySQLGameService.CreateGameRequest req = Serializer.GSON.fromJson(ctx.body(), MySQLGameService.CreateGameRequest.class);
         String token = ctx.header("authorization");
         var res = gameService.createGame(req, token);
-        ctx.result(new Gson().toJson(res));
+        ctx.result(Serializer.GSON.toJson(res));
     }
 
     private void joinGame(Context ctx) throws ResponseException {
-        MySQLGameService.JoinGameRequest req = new Gson().fromJson(ctx.body(), MySQLGameService.JoinGameRequest.class);
+        MySQLGameService.JoinGameRequest req = Serializer.GSON.fromJson(ctx.body(), MySQLGameService.JoinGameRequest.class);
         String token = ctx.header("authorization");
         var res = gameService.joinGame(req, token);
-        ctx.result(new Gson().toJson(res));
+        ctx.result(Serializer.GSON.toJson(res));
     }
 
     private void exceptionHandler(ResponseException ex, Context ctx) {
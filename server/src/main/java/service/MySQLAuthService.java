@@ -1,12 +1,12 @@
 package service;
 
-import dataaccess.MySQLAuthDAO;
+import dataaccess.SQLAuthDAO;
 import exception.ResponseException;
 
 public class MySQLAuthService {
-    private final MySQLAuthDAO authDAO;
+    private final SQLAuthDAO authDAO;
 
-    public MySQLAuthService(MySQLAuthDAO authDAO) {
+    public MySQLAuthService(SQLAuthDAO authDAO) {
         this.authDAO = authDAO;
     }
 
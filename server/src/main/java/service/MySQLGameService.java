@@ -9,7 +9,7 @@ import java.util.ArrayList;
 import java.util.Objects;
 
 public class MySQLGameService {
-    public MySQLGameService(MySQLGameDAO gameDAO, MySQLAuthDAO authDAO) {
+    public MySQLGameService(SQLGameDAO gameDAO, SQLAuthDAO authDAO) {
         this.gameDAO = gameDAO;
         this.authDAO = authDAO;
     }
@@ -21,8 +21,8 @@ public class MySQLGameService {
     public record JoinGameRequest(String playerColor, String gameID) {}
     public record JoinGameResponse() {}
 
-    private final MySQLGameDAO gameDAO;
-    private final MySQLAuthDAO authDAO;
+    private final SQLGameDAO gameDAO;
+    private final SQLAuthDAO authDAO;
 
     public ListGamesResponse listGames(ListGamesRequest l) throws ResponseException {
         AuthData auth = authDAO.findAuth(l.authToken);
@@ -1,7 +1,7 @@
 package service;
 
-import dataaccess.MySQLAuthDAO;
-import dataaccess.MySQLUserDAO;
+import dataaccess.SQLAuthDAO;
+import dataaccess.SQLUserDAO;
 import exception.ResponseException;
 import model.AuthData;
 import model.UserData;
@@ -10,7 +10,7 @@ import org.mindrot.jbcrypt.BCrypt;
 import java.util.Objects;
 
 public class MySQLUserService {
-    public MySQLUserService(MySQLUserDAO userDAO, MySQLAuthDAO authDAO) {
+    public MySQLUserService(SQLUserDAO userDAO, SQLAuthDAO authDAO) {
         this.userDAO = userDAO;
         this.authDAO = authDAO;
     }
@@ -22,8 +22,8 @@ public class MySQLUserService {
     public record LogoutRequest(String authToken) {}
     public record LogoutResponse() {}
 
-    private final MySQLUserDAO userDAO;
-    private final MySQLAuthDAO authDAO;
+    private final SQLUserDAO userDAO;
+    private final SQLAuthDAO authDAO;
 
     public RegisterResponse register(RegisterRequest r) throws ResponseException {
         if ((r.username == null) || (r.password == null) || (r.email == null)) {
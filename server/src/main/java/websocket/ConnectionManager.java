@@ -1,7 +1,8 @@
 package websocket;
 
-import com.google.gson.Gson;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
 import org.eclipse.jetty.websocket.api.Session;
+import serialization.Serializer;
 import websocket.messages.ServerMessage;
 
 import java.io.IOException;
@@ -18,13 +19,31 @@ public class ConnectionManager {
         connections.remove(session);
     }
 
+    /**
+     * @return the game the session is connected to, or null if none
+     */
+    public Integer gameOf(Session session) {
+        return connections.get(session);
+    }
+
+    /**
+     * Sends text to one session. Jetty allows one blocking send at a time per
+     * endpoint, and a session can be sent to by more than one game's
+     * sequencer, so sends to the same endpoint take turns.
+     */
+    public static void send(RemoteEndpoint remote, String text) throws IOException {
+        synchronized (remote) {
+            remote.sendString(text);
+        }
+    }
+
     public void broadcast(Session excludeSession, int gameID, ServerMessage notification) throws IOException {
-        String msg = new Gson().toJson(notification);
+        String msg = Serializer.GSON.toJson(notification);
         for (var entry : connections.entrySet()) {
             Session session = entry.getKey();
             int sessionGameID = entry.getValue();
             if (session.isOpen() && !session.equals(excludeSession) && sessionGameID==gameID) {
-                session.getRemote().sendString(msg);
+                send(session.getRemote(), msg);
             }
         }
     }
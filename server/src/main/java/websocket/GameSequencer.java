@@ -0,0 +1,153 @@
+package websocket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs the work for each game one task at a time, in the order it was
+ * submitted, while different games run in parallel. Each game with work
+ * waiting has a mailbox; the first task into an empty mailbox starts a
+ * drainer on the executor (a virtual thread by default), which runs tasks
+ * until the mailbox is empty and then retires it. No lock is shared
+ * between games, so thousands of games can make progress at once, and two
+ * commands for the same game can never read and write it at the same time.
+ * <p>
+ * close() stops new work and waits for every queued task to finish.
+ */
+public class GameSequencer implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GameSequencer.class);
+
+    @FunctionalInterface
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    private static final class Mailbox {
+        final ArrayDeque<Task> tasks = new ArrayDeque<>();
+        boolean draining = false;
+        // set once removed from the map; a submit that finds it must get a new one
+        boolean retired = false;
+    }
+
+    private final ConcurrentHashMap<Integer, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final Executor executor;
+    // the executor to shut down on close, if this sequencer made it
+    private final ExecutorService owned;
+    private volatile boolean closed = false;
+
+    public GameSequencer() {
+        this(Executors.newVirtualThreadPerTaskExecutor(), true);
+    }
+
+    /**
+     * @param executor runs the drainers; it is not shut down by close
+     */
+    public GameSequencer(Executor executor) {
+        this(executor, false);
+    }
+
+    private GameSequencer(Executor executor, boolean owned) {
+        this.executor = executor;
+        this.owned = owned ? (ExecutorService) executor : null;
+    }
+
+    /**
+     * Queues a task to run after every task already submitted for the game.
+     * A task that throws is logged and does not stop the ones after it.
+     *
+     * @throws RejectedExecutionException once the sequencer is closed
+     */
+    public void submit(int gameID, Task task) {
+        if (closed) {
+            throw new RejectedExecutionException("Game sequencer is closed");
+        }
+        while (true) {
+            Mailbox mailbox = mailboxes.computeIfAbsent(gameID, id -> new Mailbox());
+            synchronized (mailbox) {
+                if (mailbox.retired) {
+                    continue;
+                }
+                mailbox.tasks.add(task);
+                if (mailbox.draining) {
+                    return;
+                }
+                mailbox.draining = true;
+            }
+            try {
+                executor.execute(() -> drain(gameID, mailbox));
+            } catch (RejectedExecutionException ex) {
+                synchronized (mailbox) {
+                    mailbox.tasks.clear();
+                    retire(gameID, mailbox);
+                }
+                throw ex;
+            }
+            return;
+        }
+    }
+
+    /**
+     * @return how many games have tasks queued or running
+     */
+    public int activeGames() {
+        return mailboxes.size();
+    }
+
+    /**
+     * Refuses new tasks, waits for every queued task to run, then shuts down
+     * the executor if this sequencer created it
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            while (!mailboxes.isEmpty()) {
+                try {
+                    wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        if (owned != null) {
+            owned.close();
+        }
+    }
+
+    private void drain(int gameID, Mailbox mailbox) {
+        while (true) {
+            Task task;
+            synchronized (mailbox) {
+                task = mailbox.tasks.poll();
+                if (task == null) {
+                    retire(gameID, mailbox);
+                    return;
+                }
+            }
+            try {
+                task.run();
+            } catch (Exception ex) {
+                LOG.warn("Command for game {} failed", gameID, ex);
+            }
+        }
+    }
+
+    private void retire(int gameID, Mailbox mailbox) {
+        mailbox.retired = true;
+        mailboxes.remove(gameID, mailbox);
+        if (closed) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+}
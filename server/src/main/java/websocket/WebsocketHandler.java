@@ -1,15 +1,15 @@
 package websocket;
 
 import chess.*;
-import com.google.gson.Gson;
-import dataaccess.MySQLAuthDAO;
-import dataaccess.MySQLGameDAO;
+import dataaccess.SQLAuthDAO;
+import dataaccess.SQLGameDAO;
 import exception.ResponseException;
 import io.javalin.websocket.*;
 import model.*;
 import org.eclipse.jetty.websocket.api.RemoteEndpoint;
 import org.eclipse.jetty.websocket.api.Session;
 import org.jetbrains.annotations.NotNull;
+import serialization.Serializer;
 import websocket.commands.*;
 import websocket.messages.*;
 
@@ -19,7 +19,27 @@ import java.util.Objects;
 
 
 public class WebsocketHandler implements WsConnectHandler, WsMessageHandler, WsCloseHandler {
+    // the mailbox for commands from sessions that are not in a game
+    private static final int NO_GAME = -1;
+
     private final ConnectionManager connections = new ConnectionManager();
+    private final GameSequencer sequencer;
+    private final SQLGameDAO gameDAO;
+    private final SQLAuthDAO authDAO;
+
+    public WebsocketHandler(SQLGameDAO gameDAO, SQLAuthDAO authDAO) {
+        this(gameDAO, authDAO, new GameSequencer());
+    }
+
+    public WebsocketHandler(SQLGameDAO gameDAO, SQLAuthDAO authDAO, GameSequencer sequencer) {
+        this.gameDAO = gameDAO;
+        this.authDAO = authDAO;
+        this.sequencer = sequencer;
+    }
+
+    public ConnectionManager getConnections() {
+        return connections;
+    }
 
     @Override
     public void handleConnect(WsConnectContext ctx) {
@@ -27,38 +47,64 @@ public class WebsocketHandler implements WsConnectHandler, WsMessageHandler, WsC
         ctx.enableAutomaticPings();
     }
 
+    /**
+     * Hands the command to its game's sequencer, so commands for one game run
+     * one at a time in the order they arrived while other games carry on.
+     * A command without a game ID goes to the game the session is in, and is
+     * answered with an error there. A session can still hear from two games'
+     * sequencers at once, for example when it sends a command for a game it
+     * is not connected to, so sends to one session are serialized in
+     * ConnectionManager.send.
+     */
     @Override
-    public void handleMessage(WsMessageContext ctx) throws IOException{
+    public void handleMessage(WsMessageContext ctx) {
+        String message = ctx.message();
+        Session session = ctx.session;
+        UserGameCommand command = Serializer.GSON.fromJson(message, UserGameCommand.class);
+        Integer gameID = command.getGameID();
+        if (gameID == null) {
+            Integer connected = connections.gameOf(session);
+            gameID = (connected != null) ? connected : NO_GAME;
+        }
+        sequencer.submit(gameID, () -> handleCommand(session, message, command));
+    }
+
+    private void handleCommand(Session session, String message, UserGameCommand command) throws IOException {
+        if (command.getGameID() == null) {
+            sendMessage(session.getRemote(), new ErrorMessage("Error: Command is missing a game ID."));
+            return;
+        }
         try {
-            UserGameCommand command = new Gson().fromJson(ctx.message(), UserGameCommand.class);
             String auth = command.getAuthToken();
-            MySQLAuthDAO authDAO = new MySQLAuthDAO();
             AuthData authData = authDAO.findAuth(auth);
             if (badAuth(authData)) {
-                sendMessage(ctx.session.getRemote(), new ErrorMessage("Error: Unauthorized."));
+                sendMessage(session.getRemote(), new ErrorMessage("Error: Unauthorized."));
                 return;
             }
             String user = authData.getUser();
             switch (command.getCommandType()) {
                 case CONNECT -> {
-                    ConnectCommand conCommand = new Gson().fromJson(ctx.message(), ConnectCommand.class);
-                    connect(ctx.session, conCommand, user);
+                    ConnectCommand conCommand = Serializer.GSON.fromJson(message, ConnectCommand.class);
+                    connect(session, conCommand, user);
                 }
                 case MAKE_MOVE -> {
-                    MakeMoveCommand moveCommand = new Gson().fromJson(ctx.message(), MakeMoveCommand.class);
-                    makeMove(ctx.session, moveCommand, user);
+                    MakeMoveCommand moveCommand = Serializer.GSON.fromJson(message, MakeMoveCommand.class);
+                    makeMove(session, moveCommand, user);
                 }
                 case LEAVE -> {
-                    LeaveCommand leaveCommand = new Gson().fromJson(ctx.message(), LeaveCommand.class);
-                    leave(ctx.session, leaveCommand, user);
+                    LeaveCommand leaveCommand = Serializer.GSON.fromJson(message, LeaveCommand.class);
+                    leave(session, leaveCommand, user);
                 }
                 case RESIGN -> {
-                    ResignCommand resignCommand = new Gson().fromJson(ctx.message(), ResignCommand.class);
-                    resign(ctx.session, resignCommand, user);
+                    ResignCommand resignCommand = Serializer.GSON.fromJson(message, ResignCommand.class);
+                    resign(session, resignCommand, user);
                 }
             }
         } catch (ResponseException ex) {
-            sendMessage(ctx.session.getRemote(), new ErrorMessage("Error: Unable to execute command. " + ex.getMessage()));
+            sendMessage(session.getRemote(), new ErrorMessage("Error: Unable to execute command. " + ex.getMessage()));
+        } catch (RuntimeException ex) {
+            sendMessage(session.getRemote(), new ErrorMessage("Error: Unable to execute command."));
+            throw ex;
         }
     }
 
@@ -68,7 +114,7 @@ public class WebsocketHandler implements WsConnectHandler, WsMessageHandler, WsC
     }
 
     private void sendMessage(RemoteEndpoint remote, ServerMessage message) throws IOException {
-        remote.sendString(new Gson().toJson(message));
+        ConnectionManager.send(remote, Serializer.GSON.toJson(message));
     }
 
     private boolean badAuth(AuthData auth) {
@@ -77,14 +123,13 @@ public class WebsocketHandler implements WsConnectHandler, WsMessageHandler, WsC
 
     private void connect(Session session, ConnectCommand connectCommand, String username) throws ResponseException, IOException{
         connections.add(session, connectCommand.getGameID());
-        MySQLGameDAO gameDAO = new MySQLGameDAO();
         GameData game = gameDAO.getGame(connectCommand.getGameID());
         if (game == null) {
             ErrorMessage error = new ErrorMessage("Error: Game ID is not associated with existing game.");
             sendMessage(session.getRemote(), error);
             return;
         }
-        String gameJson = new Gson().toJson(game.getChess());
+        String gameJson = Serializer.GSON.toJson(game.getChess());
         LoadGameMessage loadGame = new LoadGameMessage(gameJson);
         sendMessage(session.getRemote(), loadGame);
         String message;
@@ -103,18 +148,16 @@ public class WebsocketHandler implements WsConnectHandler, WsMessageHandler, WsC
     private void staleHelper(Session session,
                              MakeMoveCommand moveCommand,
                              NotificationMessage stale,
-                             MySQLGameDAO gameDAO) throws IOException, ResponseException {
-        GameData game = gameDAO.getGame(moveCommand.getGameID());
+                             GameData game) throws IOException, ResponseException {
         connections.broadcast(session, moveCommand.getGameID(), stale);
         sendMessage(session.getRemote(), stale);
         gameDAO.endGame(moveCommand.getGameID());
-        LoadGameMessage staleLoad = new LoadGameMessage(new Gson().toJson(game.getChess()));
+        LoadGameMessage staleLoad = new LoadGameMessage(Serializer.GSON.toJson(game.getChess()));
         connections.broadcast(session, moveCommand.getGameID(), staleLoad);
         sendMessage(session.getRemote(), staleLoad);
     }
 
     public void makeMove(Session session, MakeMoveCommand moveCommand, String username) throws ResponseException, IOException{
-        MySQLGameDAO gameDAO = new MySQLGameDAO();
         GameData game = gameDAO.getGame(moveCommand.getGameID());
         if (game == null) {
             ErrorMessage error = new ErrorMessage("Error: game ID is not associated with an existing game.");
@@ -126,40 +169,37 @@ public class WebsocketHandler implements WsConnectHandler, WsMessageHandler, WsC
             sendMessage(session.getRemote(), error);
             return;
         }
-        if ((Objects.equals(username, game.whiteUsername())) &&
-                (game.getChess().getTeamTurn() == ChessGame.TeamColor.WHITE) &&
-                (isStalemate(moveCommand.getGameID(), ChessGame.TeamColor.WHITE)!=null)) {
-            NotificationMessage stale = new NotificationMessage(isStalemate(moveCommand.getGameID(), ChessGame.TeamColor.WHITE));
-            staleHelper(session, moveCommand, stale, gameDAO);
-        } else if ((Objects.equals(username, game.blackUsername())) &&
-                (game.getChess().getTeamTurn() == ChessGame.TeamColor.BLACK) &&
-                (isStalemate(moveCommand.getGameID(), ChessGame.TeamColor.BLACK)!=null)) {
-            NotificationMessage stale = new NotificationMessage(isStalemate(moveCommand.getGameID(), ChessGame.TeamColor.BLACK));
-            staleHelper(session, moveCommand, stale, gameDAO);
+        ChessGame chess = game.getChess();
+        if (chess.getStatus(chess.getTeamTurn()).isStalemate()) {
+            NotificationMessage stale = new NotificationMessage("Stalemate! Game over.");
+            staleHelper(session, moveCommand, stale, game);
+            return;
         }
         ChessMove move = moveCommand.getMove();
-        ChessPiece piece = game.getChess().getBoard().getPiece(move.getStartPosition());
-        ErrorMessage gameError = null;
+        ChessPiece piece = chess.getBoard().getPiece(move.getStartPosition());
         if (piece == null) {
-            gameError = new ErrorMessage("Error: No piece at selected position.");
+            sendMessage(session.getRemote(), new ErrorMessage("Error: No piece at selected position."));
+            return;
         }
-        Collection<ChessMove> moves = game.getChess().validMoves(move.getStartPosition());
+        Collection<ChessMove> moves = chess.validMoves(move.getStartPosition());
         if (!moves.contains(move)) {
-            gameError = new ErrorMessage("Error: Not a valid move.");
-            }
-        if (gameError != null) {
-            sendMessage(session.getRemote(), gameError);
+            sendMessage(session.getRemote(), new ErrorMessage("Error: Not a valid move."));
             return;
         }
         try {
-            game.getChess().makeMove(move);
-            gameDAO.updateGame(moveCommand.getGameID(), new Gson().toJson(game.getChess()));
+            chess.makeMove(move);
         } catch (InvalidMoveException ex) {
             ErrorMessage invalid = new ErrorMessage("Error: " + ex.getMessage());
             sendMessage(session.getRemote(), invalid);
             return;
         }
-        String jsonGame = new Gson().toJson(game.getChess());
+        String jsonGame = Serializer.GSON.toJson(chess);
+        // only the team now to move can be in check, checkmate or stalemate
+        GameStatus status = chess.getStatus(chess.getTeamTurn());
+        String player = (chess.getTeamTurn() == ChessGame.TeamColor.WHITE) ? game.whiteUsername() : game.blackUsername();
+        // the DAO may keep chess as its cached state, so this is its last use here
+        gameDAO.updateGame(moveCommand.getGameID(), chess);
+
         LoadGameMessage loadGame = new LoadGameMessage(jsonGame);
         connections.broadcast(session, moveCommand.getGameID(), loadGame);
         String startStr = String.format("%c%d", 'a' + move.getStartPosition().getColumn() - 1, move.getStartPosition().getRow());
@@ -168,47 +208,22 @@ public class WebsocketHandler implements WsConnectHandler, WsMessageHandler, WsC
         NotificationMessage notify = new NotificationMessage(moved);
         connections.broadcast(session, moveCommand.getGameID(), notify);
         sendMessage(session.getRemote(), loadGame);
-        String warning = null;
-        String check = isCheckmate(moveCommand.getGameID());
-        if (!Objects.equals(check, null)) {
-            NotificationMessage notice = new NotificationMessage(check);
-            connections.broadcast(session, moveCommand.getGameID(), notice);
-            gameDAO.endGame(moveCommand.getGameID());
-            sendMessage(session.getRemote(), notice);
-        } else if (game.getChess().isInCheck(ChessGame.TeamColor.WHITE)) {
-            warning = String.format("'%s' is in check!", game.whiteUsername());
-        } else if (game.getChess().isInCheck(ChessGame.TeamColor.BLACK)) {
-            warning = String.format("'%s' is in check!", game.blackUsername());
-        }
-        if (warning != null) {
-            NotificationMessage warningMessage = new NotificationMessage(warning);
-            connections.broadcast(session, moveCommand.getGameID(), warningMessage);
-            sendMessage(session.getRemote(), warningMessage);
-        }
-    }
 
-    private String isStalemate(int gameID, ChessGame.TeamColor color) throws ResponseException {
-        MySQLGameDAO gameDAO = new MySQLGameDAO();
-        GameData game = gameDAO.getGame(gameID);
-        ChessGame chess = game.getChess();
-        if (chess.isInStalemate(color)) {
-            return "Stalemate! Game over.";
+        String notice = null;
+        if (status.isCheckmate()) {
+            notice = String.format("'%s' is in checkmate! Game over.", player);
+            gameDAO.endGame(moveCommand.getGameID());
+        } else if (status.isStalemate()) {
+            notice = "Stalemate! Game over.";
+            gameDAO.endGame(moveCommand.getGameID());
+        } else if (status.inCheck()) {
+            notice = String.format("'%s' is in check!", player);
         }
-        return null;
-    }
-
-    private String isCheckmate(int gameID) throws ResponseException {
-        MySQLGameDAO gameDAO = new MySQLGameDAO();
-        GameData game = gameDAO.getGame(gameID);
-        ChessGame chess = game.getChess();
-        if (chess.isInCheckmate(ChessGame.TeamColor.BLACK)) {
-            String black = game.blackUsername();
-            return String.format("'%s' is in checkmate! Game over.", black);
-        } else if (chess.isInCheckmate(ChessGame.TeamColor.WHITE)) {
-            String white = game.whiteUsername();
-            return String.format("'%s' is in checkmate! Game over.", white);
+        if (notice != null) {
+            NotificationMessage noticeMessage = new NotificationMessage(notice);
+            connections.broadcast(session, moveCommand.getGameID(), noticeMessage);
+            sendMessage(session.getRemote(), noticeMessage);
         }
-        return null;
     }
 
     private ErrorMessage getErrorMessage(String username, GameData game) {
@@ -227,7 +242,6 @@ public class WebsocketHandler implements WsConnectHandler, WsMessageHandler, WsC
     }
 
     private void leave(Session session, LeaveCommand leaveCommand, String username) throws ResponseException, IOException {
-        MySQLGameDAO gameDAO = new MySQLGameDAO();
         GameData game = gameDAO.getGame(leaveCommand.getGameID());
         if (game == null) {
             ErrorMessage error = new ErrorMessage("Error: no game available to leave!");
@@ -245,7 +259,6 @@ public class WebsocketHandler implements WsConnectHandler, WsMessageHandler, WsC
     }
 
     private void resign(Session session, ResignCommand resignCommand, String username) throws ResponseException, IOException {
-        MySQLGameDAO gameDAO = new MySQLGameDAO();
         GameData game = gameDAO.getGame(resignCommand.getGameID());
         if (game == null) {
             ErrorMessage error = new ErrorMessage("Error: no game available to resign!");
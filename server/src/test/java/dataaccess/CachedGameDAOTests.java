@@ -0,0 +1,132 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import exception.ResponseException;
+import model.GameData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CachedGameDAOTests {
+    CountingGameDAO backing;
+    CachedGameDAO gameDAO;
+
+    @BeforeEach
+    public void makeDAO() {
+        backing = new CountingGameDAO();
+        // long enough that only the tests' own flush calls write
+        gameDAO = CachedGameDAO.start(backing, 60_000, 60_000);
+    }
+
+    @AfterEach
+    public void closeDAO() {
+        gameDAO.close();
+    }
+
+    @Test
+    public void movesAreCoalescedTest() throws ResponseException, InvalidMoveException {
+        int gameID = gameDAO.createGame("cached");
+        for (ChessMove move : new ChessMove[]{move(2, 5, 4, 5), move(7, 5, 5, 5), move(1, 7, 3, 6)}) {
+            GameData game = gameDAO.getGame(gameID);
+            game.getChess().makeMove(move);
+            gameDAO.updateGame(gameID, game.getChess());
+        }
+        Assertions.assertEquals(0, backing.reads, "a cached game is never read from the backing DAO");
+        Assertions.assertEquals(0, backing.writes, "moves are not written until a flush");
+        Assertions.assertEquals(1, gameDAO.dirtyCount());
+        Assertions.assertEquals(new ChessGame(), backing.getGame(gameID).getChess());
+
+        int reads = backing.reads;
+        gameDAO.flush();
+        Assertions.assertEquals(1, backing.writes, "three moves should be written once");
+        Assertions.assertEquals(reads, backing.reads, "a flush writes without reading the game first");
+        Assertions.assertEquals(gameDAO.getGame(gameID).getChess(), backing.getGame(gameID).getChess());
+        Assertions.assertEquals(0, gameDAO.dirtyCount());
+    }
+
+    @Test
+    public void readsHandBackCopiesTest() throws ResponseException, InvalidMoveException {
+        int gameID = backing.createGame("loaded");
+        GameData game = gameDAO.getGame(gameID);
+        Assertions.assertEquals(1, backing.reads);
+        game.getChess().makeMove(move(2, 5, 4, 5));
+        Assertions.assertEquals(new ChessGame(), gameDAO.getGame(gameID).getChess(),
+                "changes are only kept through updateGame");
+        Assertions.assertEquals(1, backing.reads);
+        Assertions.assertNull(gameDAO.getGame(1));
+    }
+
+    @Test
+    public void updateCopiesOnlyForeignGamesTest() throws ResponseException, InvalidMoveException {
+        int gameID = gameDAO.createGame("owned");
+        ChessGame foreign = new ChessGame();
+        gameDAO.updateGame(gameID, foreign);
+        foreign.makeMove(move(2, 5, 4, 5));
+        Assertions.assertEquals(new ChessGame(), gameDAO.getGame(gameID).getChess(),
+                "a game that did not come from getGame is copied");
+
+        ChessGame lent = gameDAO.getGame(gameID).getChess();
+        lent.makeMove(move(2, 4, 4, 4));
+        gameDAO.updateGame(gameID, lent);
+        lent.makeMove(move(7, 4, 5, 4));
+        Assertions.assertEquals(lent, gameDAO.getGame(gameID).getChess(), "the getGame copy is kept as it is");
+    }
+
+    @Test
+    public void closeWritesEndedGamesTest() throws ResponseException {
+        int gameID = gameDAO.createGame("ended");
+        gameDAO.endGame(gameID);
+        Assertions.assertFalse(backing.getGame(gameID).getChess().isEnded());
+
+        gameDAO.close();
+        Assertions.assertTrue(backing.getGame(gameID).getChess().isEnded());
+
+        gameDAO.updateGame(gameID, new ChessGame());
+        Assertions.assertFalse(backing.getGame(gameID).getChess().isEnded(), "after close changes are written through");
+    }
+
+    @Test
+    public void playersAreWrittenThroughTest() throws ResponseException {
+        int gameID = gameDAO.createGame("players");
+        gameDAO.joinGame(gameID, "whiteName", null);
+        gameDAO.joinGame(gameID, null, "blackName");
+        gameDAO.leaveGame(gameID, "WHITE");
+
+        for (GameData game : new GameData[]{gameDAO.getGame(gameID), backing.getGame(gameID)}) {
+            Assertions.assertNull(game.getWhite());
+            Assertions.assertEquals("blackName", game.getBlack());
+        }
+        Assertions.assertEquals("blackName", gameDAO.listGames().getFirst().getBlack());
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), null);
+    }
+
+    private static class CountingGameDAO extends MemoryGameDAO {
+        int reads = 0;
+        int writes = 0;
+
+        @Override
+        public GameData getGame(int gameID) {
+            reads++;
+            return super.getGame(gameID);
+        }
+
+        @Override
+        public void updateGame(int gameID, ChessGame game) throws ResponseException {
+            writes++;
+            super.updateGame(gameID, game);
+        }
+
+        @Override
+        public void writeGameState(int gameID, byte[] state) {
+            writes++;
+            super.writeGameState(gameID, state);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package dataaccess;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConnectionPoolTests {
+    private final List<FakeConnection> opened = new ArrayList<>();
+    private ConnectionPool pool;
+
+    @AfterEach
+    public void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void reusesReturnedConnectionTest() throws SQLException {
+        pool = newPool(0, 2, 100);
+        Connection first = pool.borrow();
+        Assertions.assertEquals(new ConnectionPool.Stats(1, 0, 0, 0, 0), pool.stats());
+        first.close();
+        first.close();
+        Assertions.assertTrue(first.isClosed());
+        Assertions.assertThrows(SQLException.class, first::getAutoCommit);
+        Assertions.assertEquals(new ConnectionPool.Stats(0, 1, 0, 0, 0), pool.stats());
+
+        try (Connection second = pool.borrow()) {
+            Assertions.assertFalse(second.isClosed());
+        }
+        Assertions.assertEquals(1, opened.size(), "the returned connection should be lent out again");
+        Assertions.assertFalse(opened.getFirst().closed);
+    }
+
+    @Test
+    public void boundedWithTimeoutTest() throws Exception {
+        pool = newPool(0, 1, 50);
+        Connection held = pool.borrow();
+        Assertions.assertThrows(SQLTimeoutException.class, pool::borrow);
+
+        AtomicReference<SQLException> failure = new AtomicReference<>();
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try (Connection ignored = pool.borrow()) {
+                // returned straight away
+            } catch (SQLException ex) {
+                failure.set(ex);
+            }
+        });
+        while (pool.stats().waiters() == 0 && waiter.isAlive()) {
+            Thread.onSpinWait();
+        }
+        held.close();
+        waiter.join();
+        Assertions.assertNull(failure.get());
+        Assertions.assertEquals(1, opened.size());
+        Assertions.assertEquals(new ConnectionPool.Stats(0, 1, 0, 0, 0), pool.stats());
+    }
+
+    @Test
+    public void discardsBrokenConnectionsTest() throws SQLException {
+        pool = newPool(0, 1, 100);
+        Connection conn = pool.borrow();
+        conn.setAutoCommit(false);
+        conn.close();
+        Assertions.assertTrue(opened.getFirst().rolledBack, "an open transaction is rolled back on return");
+        Assertions.assertTrue(opened.getFirst().autoCommit);
+
+        opened.getFirst().closed = true;
+        try (Connection replacement = pool.borrow()) {
+            Assertions.assertFalse(replacement.isClosed());
+        }
+        Assertions.assertEquals(2, opened.size());
+
+        pool.close();
+        Assertions.assertTrue(opened.get(1).closed, "closing the pool closes idle connections");
+        Assertions.assertThrows(SQLException.class, pool::borrow);
+    }
+
+    @Test
+    public void validatesAfterIdleTest() throws Exception {
+        pool = newPool(0, 1, 100);
+        pool.borrow().close();
+        opened.getFirst().valid = false;
+
+        pool.borrow().close();
+        Assertions.assertEquals(1, opened.size(), "a connection returned moments ago is lent without isValid");
+
+        Thread.sleep(600);
+        try (Connection replacement = pool.borrow()) {
+            Assertions.assertFalse(replacement.isClosed());
+        }
+        Assertions.assertEquals(2, opened.size(), "a stale connection idle past the window is replaced");
+        Assertions.assertTrue(opened.getFirst().closed);
+    }
+
+    @Test
+    public void cachesPreparedStatementsTest() throws SQLException {
+        pool = newPool(0, 1, 100, 2);
+        String select = "SELECT 1";
+        PreparedStatement first;
+        try (Connection conn = pool.borrow(); PreparedStatement ps = conn.prepareStatement(select)) {
+            first = ps;
+            Assertions.assertSame(conn, ps.getConnection());
+            ps.setString(1, "value");
+            try (PreparedStatement again = conn.prepareStatement(select)) {
+                Assertions.assertNotSame(ps, again, "a statement in use is not lent out twice");
+            }
+        }
+        Assertions.assertTrue(first.isClosed());
+        FakeStatement cached = opened.getFirst().statements.get(0);
+        Assertions.assertFalse(cached.closed, "closing a cached statement keeps it open");
+        Assertions.assertTrue(cached.cleared);
+
+        try (Connection conn = pool.borrow()) {
+            conn.prepareStatement(select).close();
+            conn.prepareStatement("SELECT 2").close();
+            conn.prepareStatement("SELECT 3", Statement.RETURN_GENERATED_KEYS).close();
+        }
+        ConnectionPool.Stats stats = pool.stats();
+        Assertions.assertEquals(1, stats.statementHits());
+        Assertions.assertEquals(4, stats.statementMisses());
+        Assertions.assertEquals(2, opened.getFirst().statements.stream().filter(statement -> !statement.closed)
+                .count(), "only the two most recently used statements stay cached");
+        Assertions.assertTrue(opened.getFirst().statements.get(0).closed, "the least recently used is closed");
+
+        pool.close();
+        Assertions.assertTrue(opened.getFirst().statements.stream().allMatch(statement -> statement.closed));
+    }
+
+    @Test
+    public void statementClosedAfterReturnTest() throws SQLException {
+        pool = newPool(0, 1, 100, 2);
+        String select = "SELECT 1";
+        Connection conn = pool.borrow();
+        PreparedStatement leaked = conn.prepareStatement(select);
+        conn.close();
+        Assertions.assertTrue(leaked.isClosed(), "returning the connection puts back its statements");
+        Assertions.assertThrows(SQLException.class, () -> leaked.setString(1, "value"));
+
+        try (Connection next = pool.borrow(); PreparedStatement reused = next.prepareStatement(select)) {
+            leaked.close();
+            try (PreparedStatement second = next.prepareStatement(select)) {
+                Assertions.assertEquals(2, opened.getFirst().statements.size(),
+                        "a late close must not cache the statement the next borrower is using");
+                reused.setString(1, "value");
+                second.setString(1, "value");
+            }
+        }
+        ConnectionPool.Stats stats = pool.stats();
+        Assertions.assertEquals(1, stats.statementHits());
+        Assertions.assertEquals(2, stats.statementMisses());
+    }
+
+    private ConnectionPool newPool(int minIdle, int maxSize, long timeoutMillis) {
+        return newPool(minIdle, maxSize, timeoutMillis, 0);
+    }
+
+    private ConnectionPool newPool(int minIdle, int maxSize, long timeoutMillis, int statementCacheSize) {
+        return new ConnectionPool(() -> {
+            FakeConnection fake = new FakeConnection();
+            synchronized (opened) {
+                opened.add(fake);
+            }
+            return fake.proxy();
+        }, new ConnectionPool.Settings(minIdle, maxSize, timeoutMillis, 60_000, statementCacheSize));
+    }
+
+    /**
+     * Just the Connection methods the pool calls
+     */
+    private static class FakeConnection {
+        volatile boolean closed = false;
+        volatile boolean valid = true;
+        boolean autoCommit = true;
+        boolean rolledBack = false;
+        final List<FakeStatement> statements = new ArrayList<>();
+
+        Connection proxy() {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "close" -> {
+                            closed = true;
+                            yield null;
+                        }
+                        case "isClosed" -> closed;
+                        case "isValid" -> valid && !closed;
+                        case "getAutoCommit" -> autoCommit;
+                        case "setAutoCommit" -> {
+                            autoCommit = (Boolean) args[0];
+                            yield null;
+                        }
+                        case "rollback" -> {
+                            rolledBack = true;
+                            yield null;
+                        }
+                        case "prepareStatement" -> {
+                            FakeStatement statement = new FakeStatement();
+                            statements.add(statement);
+                            yield statement.proxy();
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+
+    private static class FakeStatement {
+        boolean closed = false;
+        boolean cleared = false;
+
+        PreparedStatement proxy() {
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "close" -> {
+                            closed = true;
+                            yield null;
+                        }
+                        case "isClosed" -> closed;
+                        case "setString" -> {
+                            cleared = false;
+                            yield null;
+                        }
+                        case "clearParameters" -> {
+                            cleared = true;
+                            yield null;
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+}
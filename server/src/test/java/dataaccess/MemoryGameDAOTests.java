@@ -0,0 +1,61 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import exception.ResponseException;
+import model.GameData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MemoryGameDAOTests {
+    MemoryGameDAO gameDAO;
+
+    @BeforeEach
+    public void makeDAO() {
+        gameDAO = new MemoryGameDAO();
+    }
+
+    @Test
+    public void createAndJoinGameTest() throws ResponseException {
+        int testGameID = gameDAO.createGame("test game");
+        gameDAO.joinGame(testGameID, null, "blackName");
+        GameData testGame = gameDAO.getGame(testGameID);
+
+        Assertions.assertEquals("test game", testGame.getName());
+        Assertions.assertNull(testGame.getWhite());
+        Assertions.assertEquals("blackName", testGame.getBlack());
+        Assertions.assertEquals(new ChessGame(), testGame.getChess());
+        Assertions.assertEquals(1, gameDAO.listGames().size());
+        Assertions.assertThrows(ResponseException.class, () -> gameDAO.joinGame(testGameID, null, null));
+    }
+
+    @Test
+    public void updateGameTest() throws ResponseException, InvalidMoveException {
+        int testGameID = gameDAO.createGame("test game");
+        ChessGame moved = gameDAO.getGame(testGameID).getChess();
+        moved.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertEquals(new ChessGame(), gameDAO.getGame(testGameID).getChess(),
+                "changing a loaded game should not change the stored one");
+
+        gameDAO.updateGame(testGameID, moved);
+        Assertions.assertEquals(moved, gameDAO.getGame(testGameID).getChess());
+        gameDAO.endGame(testGameID);
+        Assertions.assertTrue(gameDAO.getGame(testGameID).getChess().isEnded());
+        Assertions.assertThrows(ResponseException.class, () -> gameDAO.updateGame(1, moved));
+    }
+
+    @Test
+    public void leaveAndClearTest() throws ResponseException {
+        int testGameID = gameDAO.createGame("test game");
+        gameDAO.joinGame(testGameID, "whiteName", "blackName");
+        gameDAO.leaveGame(testGameID, "WHITE");
+        Assertions.assertNull(gameDAO.getGame(testGameID).getWhite());
+        Assertions.assertEquals("blackName", gameDAO.getGame(testGameID).getBlack());
+
+        gameDAO.clear();
+        Assertions.assertNull(gameDAO.getGame(testGameID));
+    }
+}
@@ -13,6 +13,7 @@ public class MySQLAuthDAOTests {
 
     @BeforeEach
     public void setUp() throws ResponseException {
+        SchemaManager.migrate();
         authDAO = new MySQLAuthDAO();
         authDAO.clear();
         testUser = new UserData("user", "pass", "email@email");
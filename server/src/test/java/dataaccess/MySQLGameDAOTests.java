@@ -1,6 +1,9 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
 import exception.ResponseException;
 import model.GameData;
 import org.junit.jupiter.api.Assertions;
@@ -14,6 +17,7 @@ public class MySQLGameDAOTests {
 
     @BeforeEach
     public void makeDAO() throws ResponseException {
+        SchemaManager.migrate();
         gameDAO = new MySQLGameDAO();
         gameDAO.clear();
     }
@@ -93,6 +97,21 @@ public class MySQLGameDAOTests {
         Assertions.assertNull(noGame);
     }
 
+    @Test
+    public void updateGameTest() throws ResponseException, InvalidMoveException {
+        for (MySQLGameDAO.Storage storage : MySQLGameDAO.Storage.values()) {
+            MySQLGameDAO dao = new MySQLGameDAO(storage);
+            int testGameID = dao.createGame("test game");
+            ChessGame moved = new ChessGame();
+            moved.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+            dao.updateGame(testGameID, moved);
+
+            Assertions.assertEquals(moved, dao.getGame(testGameID).game(), storage.name());
+            dao.endGame(testGameID);
+            Assertions.assertTrue(gameDAO.getGame(testGameID).game().isEnded(), storage.name());
+        }
+    }
+
     @Test
     public void clearTest() throws ResponseException {
         String testGameName = "test game";
@@ -11,6 +11,7 @@ public class MySQLUserDAOTests {
 
     @BeforeEach
     public void makeDAO() throws ResponseException {
+        SchemaManager.migrate();
         userDAO = new MySQLUserDAO();
         userDAO.clear();
     }
@@ -0,0 +1,18 @@
+package dataaccess;
+
+import exception.ResponseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SchemaManagerTests {
+
+    @Test
+    public void migrateIsRepeatableTest() throws ResponseException {
+        SchemaManager.migrate();
+        Assertions.assertEquals(SchemaManager.latestVersion(), SchemaManager.currentVersion());
+
+        SchemaManager.migrate();
+        Assertions.assertEquals(SchemaManager.latestVersion(), SchemaManager.currentVersion(),
+                "a second run should find nothing to apply");
+    }
+}
@@ -0,0 +1,78 @@
+package websocket;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GameSequencerTests {
+
+    @Test
+    public void sameGameRunsInOrderTest() throws InterruptedException {
+        GameSequencer sequencer = new GameSequencer();
+        List<Integer> ran = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(500);
+        for (int i = 0; i < 500; i++) {
+            int task = i;
+            sequencer.submit(7, () -> {
+                if (running.incrementAndGet() > 1) {
+                    overlaps.incrementAndGet();
+                }
+                ran.add(task);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+        Assertions.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, overlaps.get(), "two tasks for one game ran at once");
+        for (int i = 0; i < 500; i++) {
+            Assertions.assertEquals(i, ran.get(i));
+        }
+    }
+
+    @Test
+    public void gamesRunInParallelTest() throws InterruptedException {
+        GameSequencer sequencer = new GameSequencer();
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch otherRan = new CountDownLatch(1);
+        sequencer.submit(1, blocked::await);
+        sequencer.submit(2, otherRan::countDown);
+        Assertions.assertTrue(otherRan.await(10, TimeUnit.SECONDS), "a busy game held up another game");
+        blocked.countDown();
+    }
+
+    @Test
+    public void failedTaskDoesNotStopGameTest() throws InterruptedException {
+        GameSequencer sequencer = new GameSequencer();
+        CountDownLatch ran = new CountDownLatch(1);
+        sequencer.submit(3, () -> {
+            throw new IllegalStateException("bad command");
+        });
+        sequencer.submit(3, ran::countDown);
+        Assertions.assertTrue(ran.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void closeRunsQueuedTasksTest() {
+        GameSequencer sequencer = new GameSequencer();
+        AtomicInteger ran = new AtomicInteger();
+        for (int i = 0; i < 100; i++) {
+            sequencer.submit(i % 4, () -> {
+                Thread.sleep(1);
+                ran.incrementAndGet();
+            });
+        }
+        sequencer.close();
+        Assertions.assertEquals(100, ran.get(), "close should wait for queued tasks");
+        Assertions.assertEquals(0, sequencer.activeGames());
+        Assertions.assertThrows(RejectedExecutionException.class, () -> sequencer.submit(1, ran::incrementAndGet));
+    }
+}
@@ -0,0 +1,242 @@
+package chess;
+
+/**
+ * Precomputed attack sets for every piece type, indexed by square (see Bitboard).
+ * <p>
+ * Knights, kings and pawns use plain lookup tables. Rooks and bishops use magic
+ * bitboards: the blockers on a slider's relevant squares are multiplied by a
+ * per-square magic number and shifted down into an index into that square's
+ * attack table, so a slider's attacks cost one multiply and one array read.
+ * The magic numbers were found offline by random search (sparse candidates,
+ * kept once every blocker subset maps to an index without a conflicting
+ * attack set); only the attack tables themselves are built at class load.
+ */
+public final class AttackTables {
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = {
+            0x1080004008801020L, 0x0840092002C03000L, 0x1900200010400900L, 0x0880100008000480L,
+            0x4200100420080200L, 0x8100020100080400L, 0x0200040110886200L, 0x0200008040220411L,
+            0x0404800084400220L, 0x0000401000402000L, 0x0086001081220440L, 0x0408800800100280L,
+            0x000A001201040820L, 0x8848800200840080L, 0x4001000100040200L, 0x0442000102105084L,
+            0x9080010020804100L, 0x0040404000201009L, 0x0000808010002009L, 0x2200090021D00100L,
+            0x0008008008040080L, 0x0004004002010040L, 0x0011040008015042L, 0x00000A0001768104L,
+            0x0000800080204009L, 0x2010004140002001L, 0x9800200280100080L, 0x1000100080080080L,
+            0x0050500500080100L, 0x0000020080040080L, 0x0C10010400420810L, 0x1040008200005104L,
+            0x01808240088004A0L, 0x0882804004802000L, 0x0880402001001100L, 0x2000210409001000L,
+            0x2000480131001500L, 0x0000800400800200L, 0x000002380C001003L, 0x4600084882000431L,
+            0x0080002000504000L, 0x0300500020004002L, 0x0040408200220011L, 0x0010040008004040L,
+            0x0000080004008080L, 0x0010040002008080L, 0x2012004881020004L, 0x8300842444820011L,
+            0x0088403882010200L, 0x0820400080210100L, 0x0110910040A00300L, 0x0801100280080480L,
+            0x0242009008200600L, 0x1002000489500200L, 0x0040800200010080L, 0x0091800041000080L,
+            0x0000209300488001L, 0x04C1002414824001L, 0x020020000B001041L, 0x7000100004200901L,
+            0x8002002004100802L, 0x30010002084C0007L, 0x0888221800813004L, 0x4000002840840112L
+    };
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_ATTACKS = new long[64][];
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = {
+            0x20C0090901061081L, 0x0024040094030104L, 0x8210810200290200L, 0x0011040484620000L,
+            0x0081104002221000L, 0x0009012011001350L, 0x0081010802400380L, 0x0000420210010408L,
+            0x0008105002280050L, 0x0001028484040044L, 0x2A00880810408804L, 0x7020022282000100L,
+            0x0084040420100A50L, 0x000401010840E000L, 0x2020020210420888L, 0x0008084202012010L,
+            0x2010400810018800L, 0x0445122008020840L, 0x0804100808002008L, 0x0008002104110100L,
+            0x0061005820080800L, 0x2001000200820100L, 0x480C210084010800L, 0x3004442500480420L,
+            0x1010102240048100L, 0x00182009084220A3L, 0x8803090A10004205L, 0x0208080040202020L,
+            0x000C044084010040L, 0x00A1010002004106L, 0x6008210020640202L, 0x1600902112860801L,
+            0x00042008C1220200L, 0x010C042002440140L, 0x5022080200040820L, 0x0402004042940100L,
+            0x0860108400008020L, 0x000C080022021000L, 0x0264080652822100L, 0x4005031221010401L,
+            0x0004502410008400L, 0x000500B010A20400L, 0x0415094050080800L, 0x080000201800A104L,
+            0x4022A80304000110L, 0x4012140802028020L, 0x40200104010100A0L, 0x12810806008B0C41L,
+            0x0020441008080000L, 0x2002120084045420L, 0x0704020062080002L, 0x0000001084040001L,
+            0x0322200891240200L, 0xF040200210024800L, 0x0140824832008042L, 0x000210020A004602L,
+            0x0083042805141020L, 0x002C12009A011000L, 0x0041A00044140400L, 0x00004004020A0202L,
+            0x0000140010020210L, 0x2864160811012200L, 0x2060080841082A17L, 0xA010041108003100L
+    };
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_ATTACKS = new long[64][];
+
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+    private static final int[][] KNIGHT_OFFSETS = {{2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}};
+    private static final int[][] KING_OFFSETS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT[square] = offsets(square, KNIGHT_OFFSETS);
+            KING[square] = offsets(square, KING_OFFSETS);
+            PAWN[Bitboard.WHITE][square] = offsets(square, new int[][]{{1, 1}, {1, -1}});
+            PAWN[Bitboard.BLACK][square] = offsets(square, new int[][]{{-1, 1}, {-1, -1}});
+            initSlider(square, ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_ATTACKS);
+            initSlider(square, BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_ATTACKS);
+        }
+        for (int square = 0; square < 64; square++) {
+            initLines(square, ROOK_DIRECTIONS);
+            initLines(square, BISHOP_DIRECTIONS);
+        }
+    }
+
+    private AttackTables() {
+
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @param colorIndex Bitboard.WHITE or Bitboard.BLACK
+     * @return the squares a pawn of that color on the given square captures on
+     */
+    public static long pawnAttacks(int colorIndex, int square) {
+        return PAWN[colorIndex][square];
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_ATTACKS[square][index];
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_ATTACKS[square][index];
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * @return the squares strictly between a and b if they share a rank, file or
+     * diagonal, otherwise 0
+     */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /**
+     * @return every square on the rank, file or diagonal through a and b
+     * (including both), or 0 if they are not aligned
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    /**
+     * Gets the squares a piece attacks. For pawns this is only the capture
+     * squares, not the pushes.
+     *
+     * @param pieceIndex the piece, as given by Bitboard.pieceIndex
+     * @param square     where the piece stands
+     * @param occupied   every occupied square, used to stop sliding pieces
+     * @return the attacked squares, including ones held by the piece's own team
+     */
+    public static long attacks(int pieceIndex, int square, long occupied) {
+        int colorIndex = pieceIndex / Bitboard.PIECE_TYPES;
+        return switch (TYPES[pieceIndex % Bitboard.PIECE_TYPES]) {
+            case KING -> KING[square];
+            case QUEEN -> queenAttacks(square, occupied);
+            case BISHOP -> bishopAttacks(square, occupied);
+            case KNIGHT -> KNIGHT[square];
+            case ROOK -> rookAttacks(square, occupied);
+            case PAWN -> PAWN[colorIndex][square];
+        };
+    }
+
+    private static long offsets(int square, int[][] offsets) {
+        int row = square >>> 3;
+        int col = square & 7;
+        long result = 0;
+        for (int[] offset : offsets) {
+            int r = row + offset[0];
+            int c = col + offset[1];
+            if (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                result |= 1L << ((r << 3) | c);
+            }
+        }
+        return result;
+    }
+
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        int row = square >>> 3;
+        int col = square & 7;
+        long result = 0;
+        for (int[] dir : directions) {
+            int r = row + dir[0];
+            int c = col + dir[1];
+            while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                long bit = 1L << ((r << 3) | c);
+                result |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                r += dir[0];
+                c += dir[1];
+            }
+        }
+        return result;
+    }
+
+    private static long relevantMask(int square, int[][] directions) {
+        int row = square >>> 3;
+        int col = square & 7;
+        long result = 0;
+        for (int[] dir : directions) {
+            int r = row + dir[0];
+            int c = col + dir[1];
+            // the last square in a direction never blocks anything behind it
+            while (r + dir[0] >= 0 && r + dir[0] < 8 && c + dir[1] >= 0 && c + dir[1] < 8) {
+                result |= 1L << ((r << 3) | c);
+                r += dir[0];
+                c += dir[1];
+            }
+        }
+        return result;
+    }
+
+    private static void initLines(int square, int[][] directions) {
+        for (int[] dir : directions) {
+            long line = slidingAttacks(square, 0, new int[][]{dir, {-dir[0], -dir[1]}}) | (1L << square);
+            long path = 0;
+            int r = (square >>> 3) + dir[0];
+            int c = (square & 7) + dir[1];
+            while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                int other = (r << 3) | c;
+                BETWEEN[square][other] = path;
+                LINE[square][other] = line;
+                path |= 1L << other;
+                r += dir[0];
+                c += dir[1];
+            }
+        }
+    }
+
+    private static void initSlider(int square, int[][] directions, long[] masks, long[] magics,
+                                   int[] shifts, long[][] tables) {
+        long mask = relevantMask(square, directions);
+        int shift = 64 - Long.bitCount(mask);
+        long[] table = new long[1 << (64 - shift)];
+        long subset = 0;
+        do {
+            table[(int) ((subset * magics[square]) >>> shift)] = slidingAttacks(square, subset, directions);
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+        masks[square] = mask;
+        shifts[square] = shift;
+        tables[square] = table;
+    }
+}
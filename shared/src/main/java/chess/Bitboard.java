@@ -0,0 +1,158 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A 64-bit bitboard view of a chessboard: one long per piece type and color,
+ * plus one occupancy long per color and one for the whole board, along with
+ * the Zobrist key of the pieces and the square of each king.
+ * <p>
+ * Squares are numbered 0-63 with a1 = 0, h1 = 7 and h8 = 63, so a square's bit
+ * is {@code 1L << ((row - 1) * 8 + (column - 1))} for a 1-based ChessPosition.
+ */
+public final class Bitboard {
+
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+    public static final int PIECE_TYPES = 6;
+
+    private static final int KING = ChessPiece.PieceType.KING.ordinal();
+
+    final long[] pieces = new long[2 * PIECE_TYPES];
+    final long[] colors = new long[2];
+    final int[] kings = {-1, -1};
+    long occupied;
+    long key;
+
+    public Bitboard() {
+
+    }
+
+    public Bitboard(Bitboard other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.colors, 0, colors, 0, colors.length);
+        kings[WHITE] = other.kings[WHITE];
+        kings[BLACK] = other.kings[BLACK];
+        occupied = other.occupied;
+        key = other.key;
+    }
+
+    public static int square(int row, int col) {
+        return ((row - 1) << 3) | (col - 1);
+    }
+
+    public static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    public static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    public static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static int colorIndex(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? WHITE : BLACK;
+    }
+
+    public static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return colorIndex(color) * PIECE_TYPES + type.ordinal();
+    }
+
+    public static int pieceIndex(ChessPiece piece) {
+        return pieceIndex(piece.getTeamColor(), piece.getPieceType());
+    }
+
+    void add(int square, int pieceIndex) {
+        long bit = 1L << square;
+        pieces[pieceIndex] |= bit;
+        colors[pieceIndex / PIECE_TYPES] |= bit;
+        occupied |= bit;
+        key ^= Zobrist.piece(pieceIndex, square);
+        if (pieceIndex % PIECE_TYPES == KING) {
+            kings[pieceIndex / PIECE_TYPES] = square;
+        }
+    }
+
+    void remove(int square, int pieceIndex) {
+        long mask = ~(1L << square);
+        pieces[pieceIndex] &= mask;
+        colors[pieceIndex / PIECE_TYPES] &= mask;
+        occupied &= mask;
+        key ^= Zobrist.piece(pieceIndex, square);
+        if (pieceIndex % PIECE_TYPES == KING && kings[pieceIndex / PIECE_TYPES] == square) {
+            // only test boards have a second king to fall back on
+            long others = pieces[pieceIndex];
+            kings[pieceIndex / PIECE_TYPES] = (others == 0) ? -1 : Long.numberOfTrailingZeros(others);
+        }
+    }
+
+    void clear() {
+        Arrays.fill(pieces, 0L);
+        colors[WHITE] = 0L;
+        colors[BLACK] = 0L;
+        kings[WHITE] = -1;
+        kings[BLACK] = -1;
+        occupied = 0L;
+        key = 0L;
+    }
+
+    public long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieces[pieceIndex(color, type)];
+    }
+
+    public long pieces(int pieceIndex) {
+        return pieces[pieceIndex];
+    }
+
+    public long color(ChessGame.TeamColor color) {
+        return colors[colorIndex(color)];
+    }
+
+    public long color(int colorIndex) {
+        return colors[colorIndex];
+    }
+
+    public long occupied() {
+        return occupied;
+    }
+
+    /**
+     * @return the Zobrist key of the pieces on the board, maintained as pieces
+     * are added and removed
+     */
+    public long key() {
+        return key;
+    }
+
+    /**
+     * @return the square of the given team's king, or -1 if it has none
+     */
+    public int kingSquare(int colorIndex) {
+        return kings[colorIndex];
+    }
+
+    public int kingSquare(ChessGame.TeamColor color) {
+        return kings[colorIndex(color)];
+    }
+
+    /**
+     * Tests whether a team attacks a square by looking outward from the square
+     * for each kind of attacker, rather than generating every enemy move
+     *
+     * @param byColorIndex the attacking team
+     */
+    public boolean isAttacked(int square, int byColorIndex) {
+        return MoveGenerator.attackersTo(this, square, byColorIndex, occupied) != 0;
+    }
+
+    public boolean isOccupied(int square) {
+        return ((occupied >>> square) & 1L) != 0;
+    }
+}
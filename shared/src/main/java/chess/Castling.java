@@ -0,0 +1,107 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Castling rights as a 4-bit mask, one bit per king and side. A right only
+ * says the king and that rook have not moved; whether castling is legal right
+ * now also depends on the squares between them and on check (see MoveGenerator).
+ * <p>
+ * Rights are updated incrementally: after a move, the rights are ANDed with
+ * the mask kept for its from and to squares, so moving a king or rook, or
+ * capturing a rook on its home square, clears the rights it belonged to.
+ */
+public final class Castling {
+
+    public static final int NONE = 0;
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 1 << 1;
+    public static final int BLACK_KINGSIDE = 1 << 2;
+    public static final int BLACK_QUEENSIDE = 1 << 3;
+    public static final int ALL = 15;
+
+    /** FEN letters, by bit */
+    private static final String LETTERS = "KQkq";
+
+    static final int WHITE_KING_HOME = 4;
+    static final int BLACK_KING_HOME = 60;
+
+    private static final int[] KEPT = new int[64];
+
+    static {
+        Arrays.fill(KEPT, ALL);
+        KEPT[WHITE_KING_HOME] = ALL & ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        KEPT[BLACK_KING_HOME] = ALL & ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        KEPT[rookHome(WHITE_KINGSIDE)] = ALL & ~WHITE_KINGSIDE;
+        KEPT[rookHome(WHITE_QUEENSIDE)] = ALL & ~WHITE_QUEENSIDE;
+        KEPT[rookHome(BLACK_KINGSIDE)] = ALL & ~BLACK_KINGSIDE;
+        KEPT[rookHome(BLACK_QUEENSIDE)] = ALL & ~BLACK_QUEENSIDE;
+    }
+
+    private Castling() {
+
+    }
+
+    /**
+     * @return the rights still held after a piece moves from one square to another
+     */
+    static int afterMove(int rights, int from, int to) {
+        return rights & KEPT[from] & KEPT[to];
+    }
+
+    /**
+     * @param right one of the four single rights
+     * @return the square its rook starts on
+     */
+    static int rookHome(int right) {
+        return switch (right) {
+            case WHITE_KINGSIDE -> 7;
+            case WHITE_QUEENSIDE -> 0;
+            case BLACK_KINGSIDE -> 63;
+            case BLACK_QUEENSIDE -> 56;
+            default -> throw new IllegalArgumentException("Not a single castling right: " + right);
+        };
+    }
+
+    /**
+     * Works out the rights a board allows without any history: a right is
+     * held if the king and that rook are both on their starting squares
+     */
+    static int inferRights(ChessBoard board) {
+        int rights = NONE;
+        for (int right = WHITE_KINGSIDE; right <= BLACK_QUEENSIDE; right <<= 1) {
+            ChessGame.TeamColor color = (right <= WHITE_QUEENSIDE) ? ChessGame.TeamColor.WHITE
+                    : ChessGame.TeamColor.BLACK;
+            int kingHome = (color == ChessGame.TeamColor.WHITE) ? WHITE_KING_HOME : BLACK_KING_HOME;
+            if (ChessPiece.of(color, ChessPiece.PieceType.KING).equals(board.pieceAt(kingHome))
+                    && ChessPiece.of(color, ChessPiece.PieceType.ROOK).equals(board.pieceAt(rookHome(right)))) {
+                rights |= right;
+            }
+        }
+        return rights;
+    }
+
+    /**
+     * @return the rights in FEN form, such as "KQkq", or "-" for none
+     */
+    public static String toFen(int rights) {
+        if (rights == NONE) {
+            return "-";
+        }
+        StringBuilder fen = new StringBuilder(4);
+        for (int i = 0; i < LETTERS.length(); i++) {
+            if ((rights & (1 << i)) != 0) {
+                fen.append(LETTERS.charAt(i));
+            }
+        }
+        return fen.toString();
+    }
+
+    /**
+     * @return the right for a FEN castling letter, or -1 if it is not one
+     */
+    static int fromFenLetter(char letter) {
+        int index = LETTERS.indexOf(letter);
+        return (index < 0) ? -1 : 1 << index;
+    }
+}
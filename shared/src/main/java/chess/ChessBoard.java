@@ -12,11 +12,24 @@ import java.util.Objects;
 public class ChessBoard {
 
     ChessPiece[][] squares = new ChessPiece[8][8];
+    private transient Bitboard bitboard;
 
     public ChessBoard() {
 
     }
 
+    /**
+     * Creates an independent copy of another board
+     */
+    public ChessBoard(ChessBoard other) {
+        for (int row = 0; row < 8; row++) {
+            squares[row] = other.squares[row].clone();
+        }
+        if (other.bitboard != null) {
+            bitboard = new Bitboard(other.bitboard);
+        }
+    }
+
     /**
      * Adds a chess piece to the chessboard
      *
@@ -24,7 +37,7 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow()-1][position.getColumn()-1] = piece;
+        setPiece(Bitboard.square(position), piece);
     }
 
     /**
@@ -38,28 +51,101 @@ public class ChessBoard {
         return squares[position.getRow()-1][position.getColumn()-1];
     }
 
-    public ChessPosition findPiece(ChessPiece.PieceType pType, ChessGame.TeamColor pTeam, ChessBoard board) {
-        for (int i=0; i<8; i++) {
-            for (int j=0; j<8; j++) {
-                ChessPosition pos = new ChessPosition((i+1), (j+1));
-                ChessPosition checkPos = new ChessPosition(i, j);
-                if (board.checkPiece(checkPos)) {
-                    ChessPiece spot = board.getPiece(pos);
-                    if ((spot.getTeamColor() == pTeam) && (spot.getPieceType() == pType)) {
-                        return pos;
-                    }
-                }
+    /**
+     * Gets a chess piece by Bitboard square index (a1 = 0, h8 = 63)
+     *
+     * @return the piece on the square, or null if it is empty
+     */
+    public ChessPiece pieceAt(int square) {
+        return squares[square >>> 3][square & 7];
+    }
+
+    /**
+     * Puts a piece (or null) on a square given as a Bitboard square index,
+     * keeping the bitboards in sync
+     */
+    void setPiece(int square, ChessPiece piece) {
+        int row = square >>> 3;
+        int col = square & 7;
+        if (bitboard != null) {
+            ChessPiece old = squares[row][col];
+            if (old != null) {
+                bitboard.remove(square, Bitboard.pieceIndex(old));
+            }
+            if (piece != null) {
+                bitboard.add(square, Bitboard.pieceIndex(piece));
             }
         }
-        return null;
+        squares[row][col] = piece;
+    }
+
+    public ChessPosition findPiece(ChessPiece.PieceType pType, ChessGame.TeamColor pTeam, ChessBoard board) {
+        Bitboard bits = board.getBitboard();
+        int square;
+        if (pType == ChessPiece.PieceType.KING) {
+            square = bits.kingSquare(pTeam);
+        } else {
+            long matches = bits.pieces(pTeam, pType);
+            square = (matches == 0) ? -1 : Long.numberOfTrailingZeros(matches);
+        }
+        if (square < 0) {
+            return null;
+        }
+        return ChessPosition.ofSquare(square);
     }
 
+    /**
+     * Determines if any piece of the given team attacks a square
+     *
+     * @param position the square to test
+     * @param byTeam   the attacking team
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byTeam) {
+        return getBitboard().isAttacked(Bitboard.square(position), Bitboard.colorIndex(byTeam));
+    }
+
+    /**
+     * Checks for a piece using a zero-based position, where (0, 0) is a1
+     */
     public boolean checkPiece(ChessPosition position) {
-        return squares[position.getRow()][position.getColumn()] != null;
+        return getBitboard().isOccupied((position.getRow() << 3) | position.getColumn());
     }
 
     public void removePiece(ChessPosition position) {
-        squares[position.getRow()-1][position.getColumn()-1] = null;
+        addPiece(position, null);
+    }
+
+    /**
+     * @return the piece placement field of this board's FEN, such as
+     * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR"
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(72);
+        Fen.appendPlacement(fen, this);
+        return fen.toString();
+    }
+
+    /**
+     * Gets the bitboard view of this board. It is rebuilt from the squares
+     * the first time it is needed and kept in sync by addPiece and removePiece
+     * from then on.
+     *
+     * @return the bitboards for this board
+     */
+    public Bitboard getBitboard() {
+        if (bitboard == null) {
+            Bitboard bits = new Bitboard();
+            for (int row = 0; row < 8; row++) {
+                for (int col = 0; col < 8; col++) {
+                    ChessPiece piece = squares[row][col];
+                    if (piece != null) {
+                        bits.add((row << 3) | col, Bitboard.pieceIndex(piece));
+                    }
+                }
+            }
+            bitboard = bits;
+        }
+        return bitboard;
     }
 
     /**
@@ -68,45 +154,46 @@ public class ChessBoard {
      */
     public void resetBoard() {
         squares = new ChessPiece[8][8];
-        ChessPiece whiteRook1 = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+        bitboard = null;
+        ChessPiece whiteRook1 = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
         squares[0][0] = whiteRook1;
-        ChessPiece whiteKnight1 = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
+        ChessPiece whiteKnight1 = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
         squares[0][1] = whiteKnight1;
-        ChessPiece whiteBishop1 = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
+        ChessPiece whiteBishop1 = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
         squares[0][2] = whiteBishop1;
-        ChessPiece whiteKing = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
+        ChessPiece whiteKing = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
         squares[0][4] = whiteKing;
-        ChessPiece whiteQueen = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
+        ChessPiece whiteQueen = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
         squares[0][3] = whiteQueen;
-        ChessPiece whiteBishop2 = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
+        ChessPiece whiteBishop2 = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
         squares[0][5] = whiteBishop2;
-        ChessPiece whiteKnight2 = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
+        ChessPiece whiteKnight2 = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
         squares[0][6] = whiteKnight2;
-        ChessPiece whiteRook2 = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+        ChessPiece whiteRook2 = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
         squares[0][7] = whiteRook2;
         for (int i=0; i<=7; i++) {
-            ChessPiece whitePawn = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+            ChessPiece whitePawn = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
             squares[1][i] = whitePawn;
         }
 
-        ChessPiece blackRook1 = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        ChessPiece blackRook1 = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
         squares[7][0] = blackRook1;
-        ChessPiece blackKnight1 = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+        ChessPiece blackKnight1 = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
         squares[7][1] = blackKnight1;
-        ChessPiece blackBishop1 = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
+        ChessPiece blackBishop1 = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
         squares[7][2] = blackBishop1;
-        ChessPiece blackQueen = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
+        ChessPiece blackQueen = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
         squares[7][3] = blackQueen;
-        ChessPiece blackKing = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
+        ChessPiece blackKing = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
         squares[7][4] = blackKing;
-        ChessPiece blackBishop2 = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
+        ChessPiece blackBishop2 = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
         squares[7][5] = blackBishop2;
-        ChessPiece blackKnight2 = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+        ChessPiece blackKnight2 = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
         squares[7][6] = blackKnight2;
-        ChessPiece blackRook2 = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        ChessPiece blackRook2 = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
         squares[7][7] = blackRook2;
         for (int i=0; i<=7; i++) {
-            ChessPiece blackPawn = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+            ChessPiece blackPawn = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
             squares[6][i] = blackPawn;
         }
     }
@@ -117,12 +204,15 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
+        if (getBitboard().key() != that.getBitboard().key()) {
+            return false;
+        }
         return Objects.deepEquals(squares, that.squares);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return Long.hashCode(getBitboard().key());
     }
 
     @Override
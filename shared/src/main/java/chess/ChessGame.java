@@ -1,6 +1,7 @@
 package chess;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Objects;
 
@@ -10,15 +11,78 @@ public class ChessGame {
     public ChessBoard gameBoard = new ChessBoard();
     private boolean ended = false;
 
+    /*
+     * Position state the board alone does not show. Both are updated by each
+     * move and restored from the undo record. The en passant square is only
+     * set when an enemy pawn is next to the pawn that just moved two squares,
+     * so positions that differ only by an unusable en passant square compare
+     * and hash the same.
+     */
+    private int castlingRights = Castling.ALL;
+    private int enPassantSquare = -1;
+
+    /*
+     * Undo records for moves made on this game, most recent last. Each record
+     * is packed into a long: from square (6 bits), to square (6 bits), moved
+     * piece index (4 bits), captured piece index + 1 (4 bits, 0 for none),
+     * promotion, castle and en passant flags, then the castling rights (4 bits)
+     * and en passant square + 1 (7 bits, 0 for none) from before the move.
+     */
+    private transient long[] undoStack = new long[64];
+    private transient int undoCount = 0;
+
+    /*
+     * Status per team (by Bitboard color index) and the position key it was
+     * worked out for. A move, a new board or a change of turn changes the key,
+     * which is what invalidates an entry.
+     */
+    private transient GameStatus[] statuses = new GameStatus[2];
+    private transient long[] statusKeys = new long[2];
+
+    // reused by validMoves and getStatus, created on first use
+    private transient MoveList scratchMoves;
+
+    private static final int TO_SHIFT = 6;
+    private static final int MOVED_SHIFT = 12;
+    private static final int CAPTURED_SHIFT = 16;
+    private static final long PROMOTION_FLAG = 1L << 20;
+    private static final long CASTLE_FLAG = 1L << 21;
+    private static final long EN_PASSANT_FLAG = 1L << 22;
+    private static final int RIGHTS_SHIFT = 24;
+    private static final int EN_PASSANT_SHIFT = 28;
+    private static final int PAWN = ChessPiece.PieceType.PAWN.ordinal();
+    private static final int KING = ChessPiece.PieceType.KING.ordinal();
+
     public ChessGame() {
         gameBoard.resetBoard();
     }
 
+    /**
+     * Creates an independent copy of another game, including the moves it can
+     * unmake, so that the copy can be searched on another thread
+     */
+    public ChessGame(ChessGame other) {
+        teamTurn = other.teamTurn;
+        gameBoard = new ChessBoard(other.gameBoard);
+        ended = other.ended;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        undoStack = other.undoStack.clone();
+        undoCount = other.undoCount;
+    }
+
     public TeamColor getTeamTurn() {
         return teamTurn;
     }
 
+    /**
+     * Sets which team's turn it is. Changing the turn drops the en passant
+     * square, which only ever belongs to the team about to move.
+     */
     public void setTeamTurn(TeamColor team) {
+        if (team != teamTurn) {
+            enPassantSquare = -1;
+        }
         teamTurn = team;
     }
 
@@ -45,36 +109,16 @@ public class ChessGame {
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
         ChessBoard board = getBoard();
         ChessPiece piece = board.getPiece(startPosition);
-        TeamColor color = piece.getTeamColor();
-
-        ArrayList<ChessMove> valid = new ArrayList<>();
-        Collection<ChessMove> moves = piece.pieceMoves(board, startPosition);
-        for (ChessMove move : moves) {
-            ChessPosition end = move.getEndPosition();
-            ChessPosition checkEnd = new ChessPosition((end.getRow()-1), (end.getColumn()-1));
-            boolean capture = false;
-            ChessPiece capturePiece = null;
-            if (board.checkPiece(checkEnd)) {
-                capturePiece = board.getPiece(end);
-                capture = true;
-            }
-            board.addPiece(end, piece);
-            board.removePiece(startPosition);
-            if (isInCheck(color)) {
-                board.addPiece(startPosition, piece);
-                board.removePiece(end);
-                if (capture) {
-                    board.addPiece(end, capturePiece);
-                }
-            } else {
-                board.addPiece(startPosition, piece);
-                board.removePiece(end);
-                valid.add(move);
-                if (capture) {
-                    board.addPiece(end, capturePiece);
-                }
-            }
+        if (piece == null) {
+            return null;
         }
+
+        MoveList moves = scratchMoves();
+        TeamColor team = piece.getTeamColor();
+        MoveGenerator.legalMoves(board, team, castlingRights, (team == teamTurn) ? enPassantSquare : -1,
+                Bitboard.bit(Bitboard.square(startPosition)), ~0L, moves);
+        ArrayList<ChessMove> valid = new ArrayList<>(moves.size());
+        moves.addTo(valid);
         return valid;
     }
 
@@ -86,120 +130,197 @@ public class ChessGame {
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
         ChessPosition start = move.getStartPosition();
-        ChessBoard board = getBoard();
-
-        ChessPiece piece;
-        ChessPosition checkStart = new ChessPosition((start.getRow()-1), (start.getColumn()-1));
-        if (board.checkPiece(checkStart)) {
-            piece = board.getPiece(start);
-        } else {
+        ChessPiece piece = getBoard().getPiece(start);
+        if (piece == null) {
             throw new InvalidMoveException("There is not a piece at the start position");
         }
-
-        if (move.getPromotionPiece() != null) {
-            makePawnPromote(move);
-            return;
+        if ((piece.getTeamColor() != getTeamTurn()) || !validMoves(start).contains(move)) {
+            throw new InvalidMoveException("Invalid move");
         }
+        applyMove(move);
+    }
 
-        Collection<ChessMove> moves = validMoves(start);
+    /**
+     * Applies a move without checking that it is legal, then passes the turn to
+     * the other team. The move is recorded so that unmakeMove can take it back.
+     * A king moving two squares castles and brings its rook across, and a pawn
+     * moving diagonally onto the en passant square takes the pawn beside it.
+     *
+     * @param move chess move to apply; there must be a piece at its start position
+     */
+    public void applyMove(ChessMove move) {
+        applyMove(Move.of(move));
+    }
 
-        ChessPosition end = move.getEndPosition();
-        TeamColor current = piece.getTeamColor();
+    /**
+     * Packed-move version of applyMove (see Move), which allocates nothing
+     *
+     * @param move packed move to apply; there must be a piece at its from square
+     */
+    public void applyMove(int move) {
+        ChessBoard board = getBoard();
+        int from = Move.from(move);
+        int to = Move.to(move);
+        ChessPiece piece = board.pieceAt(from);
+        ChessPiece captured = board.pieceAt(to);
+        int moved = Bitboard.pieceIndex(piece);
+        int type = moved % Bitboard.PIECE_TYPES;
+
+        long record = from | ((long) to << TO_SHIFT) | ((long) moved << MOVED_SHIFT)
+                | ((long) castlingRights << RIGHTS_SHIFT) | ((long) (enPassantSquare + 1) << EN_PASSANT_SHIFT);
+        if (type == PAWN && to == enPassantSquare && (from & 7) != (to & 7)) {
+            // the captured pawn is beside the capturing pawn, not on the target square
+            int captureSquare = (moved < Bitboard.PIECE_TYPES) ? to - 8 : to + 8;
+            captured = board.pieceAt(captureSquare);
+            record |= EN_PASSANT_FLAG;
+            board.setPiece(captureSquare, null);
+        }
+        if (captured != null) {
+            record |= (long) (Bitboard.pieceIndex(captured) + 1) << CAPTURED_SHIFT;
+        }
+        ChessPiece placed = piece;
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        if (promotion != null) {
+            placed = ChessPiece.BY_INDEX[Bitboard.pieceIndex(piece.getTeamColor(), promotion)];
+            record |= PROMOTION_FLAG;
+        }
 
-        if ((moves.contains(move))&&(current == getTeamTurn())) {
-            board.addPiece(end, piece);
-            board.removePiece(start);
-            TeamColor newColor;
-            if (current == TeamColor.BLACK) {
-                newColor = TeamColor.WHITE;
-            } else {
-                newColor = TeamColor.BLACK;
-            }
-            setTeamTurn(newColor);
-        } else {
-            throw new InvalidMoveException("Invalid move");
+        board.setPiece(from, null);
+        board.setPiece(to, placed);
+        if (type == KING && Math.abs(to - from) == 2) {
+            board.setPiece(rookCastleTo(from, to), board.pieceAt(rookCastleFrom(from, to)));
+            board.setPiece(rookCastleFrom(from, to), null);
+            record |= CASTLE_FLAG;
+        }
+
+        castlingRights = Castling.afterMove(castlingRights, from, to);
+        enPassantSquare = -1;
+        if (type == PAWN && Math.abs(to - from) == 16) {
+            setEnPassantIfCapturable((from + to) >>> 1, 1 - moved / Bitboard.PIECE_TYPES);
         }
+        pushUndo(record);
+        teamTurn = opposite(teamTurn);
     }
 
+    /**
+     * Takes back the most recent move made with makeMove or applyMove,
+     * restoring any captured piece and the team whose turn it was
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void unmakeMove() {
+        if (undoCount == 0) {
+            throw new IllegalStateException("There is no move to unmake");
+        }
+        long record = undoStack[--undoCount];
+        int from = (int) (record & 63);
+        int to = (int) ((record >>> TO_SHIFT) & 63);
+        int moved = (int) ((record >>> MOVED_SHIFT) & 15);
+        int captured = (int) ((record >>> CAPTURED_SHIFT) & 15);
+        ChessPiece capturedPiece = (captured == 0) ? null : ChessPiece.BY_INDEX[captured - 1];
 
-    private void makePawnPromote(ChessMove move) {
-        ChessPosition start = move.getStartPosition();
         ChessBoard board = getBoard();
-        ChessPiece piece = board.getPiece(start);
-        TeamColor pawnColor = piece.getTeamColor();
+        board.setPiece(from, ChessPiece.BY_INDEX[moved]);
+        if ((record & EN_PASSANT_FLAG) != 0) {
+            board.setPiece(to, null);
+            board.setPiece((to > from) ? to - 8 : to + 8, capturedPiece);
+        } else {
+            board.setPiece(to, capturedPiece);
+        }
+        if ((record & CASTLE_FLAG) != 0) {
+            board.setPiece(rookCastleFrom(from, to), board.pieceAt(rookCastleTo(from, to)));
+            board.setPiece(rookCastleTo(from, to), null);
+        }
+        castlingRights = (int) ((record >>> RIGHTS_SHIFT) & 15);
+        enPassantSquare = (int) ((record >>> EN_PASSANT_SHIFT) & 127) - 1;
+        teamTurn = opposite(teamTurn);
+    }
 
-        ChessPiece.PieceType promotionType = move.getPromotionPiece();
-        ChessPiece pawnPromote = new ChessPiece(pawnColor, promotionType);
-        board.addPiece((move.getEndPosition()), pawnPromote);
-        board.removePiece(start);
+    private static int rookCastleFrom(int kingFrom, int kingTo) {
+        return (kingTo > kingFrom) ? kingFrom + 3 : kingFrom - 4;
+    }
+
+    private static int rookCastleTo(int kingFrom, int kingTo) {
+        return (kingFrom + kingTo) >>> 1;
     }
 
     /**
-     * Determines if the given team is in check
+     * Sets the en passant square for a pawn that just moved two squares, but
+     * only if an enemy pawn stands ready to capture onto it
      *
-     * @param teamColor which team to check for check
-     * @return True if the specified team is in check
+     * @param capturer color index of the team that could capture
      */
-    public boolean isInCheck(TeamColor teamColor) {
-        ChessBoard board = getBoard();
-        ChessPosition kingPos = board.findPiece(ChessPiece.PieceType.KING, teamColor, board);
-
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                if (pieceThreatensCking(i, j, teamColor, kingPos, board)) {
-                    return true;
-                }
-            }
+    private void setEnPassantIfCapturable(int square, int capturer) {
+        long pawns = getBoard().getBitboard().pieces(capturer * Bitboard.PIECE_TYPES + PAWN);
+        if ((AttackTables.pawnAttacks(1 - capturer, square) & pawns) != 0) {
+            enPassantSquare = square;
         }
-        return false;
     }
 
-    private boolean pieceThreatensCking(int i, int j, TeamColor teamColor, ChessPosition kingPos, ChessBoard board) {
-        ChessPosition checkPos = new ChessPosition(i - 1, j - 1);
-        if (!board.checkPiece(checkPos)) {
-            return false;
-        }
-        ChessPosition pos = new ChessPosition(i, j);
-        ChessPiece piece = board.getPiece(pos);
-        if (piece.getTeamColor() == teamColor) {
-            return false;
-        }
-        if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
-            return pawnThreatensKing(piece, pos, kingPos, board);
-        }
-        return nonPawnThreatensKing(piece, pos, kingPos, board);
+    /**
+     * @return the castling rights still held, as a Castling bit mask
+     */
+    public int getCastlingRights() {
+        return castlingRights;
     }
 
-    private boolean nonPawnThreatensKing(ChessPiece piece, ChessPosition pos, ChessPosition kingPos, ChessBoard board) {
-        Collection<ChessMove> moves = piece.pieceMoves(board, pos);
-        return moves.contains(new ChessMove(pos, kingPos, null));
+    /**
+     * @return the Bitboard square the team to move can capture onto en
+     * passant, or -1 if there is none
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
     }
 
-    private boolean pawnThreatensKing(ChessPiece piece, ChessPosition pos, ChessPosition kingPos, ChessBoard board) {
-        Collection<ChessMove> moves = piece.pieceMoves(board, pos);
-        for (ChessMove pawnMove : addPawns(pos, kingPos)) {
-            if (moves.contains(pawnMove)) {
-                return true;
+    /**
+     * Sets the castling rights and en passant square, for positions read from
+     * FEN or storage. Rights whose king or rook is not at home are dropped, as
+     * is an en passant square no pawn can capture onto.
+     */
+    void setPositionState(int rights, int enPassant) {
+        castlingRights = rights & Castling.inferRights(getBoard());
+        enPassantSquare = -1;
+        if (enPassant >= 0) {
+            int capturer = Bitboard.colorIndex(teamTurn);
+            int pawnSquare = (capturer == Bitboard.WHITE) ? enPassant - 8 : enPassant + 8;
+            int pawn = (1 - capturer) * Bitboard.PIECE_TYPES + PAWN;
+            if (pawnSquare >= 0 && pawnSquare < 64
+                    && (getBoard().getBitboard().pieces(pawn) & Bitboard.bit(pawnSquare)) != 0) {
+                setEnPassantIfCapturable(enPassant, capturer);
             }
         }
-        return false;
     }
 
-    private ArrayList<ChessMove> addPawns(ChessPosition start, ChessPosition end) {
-        ArrayList<ChessMove> pawns = new ArrayList<>();
-        ChessMove pawnRook = new ChessMove(start, end, ChessPiece.PieceType.ROOK);
-        ChessMove pawnQueen = new ChessMove(start, end, ChessPiece.PieceType.QUEEN);
-        ChessMove pawnBishop = new ChessMove(start, end, ChessPiece.PieceType.BISHOP);
-        ChessMove pawnKnight = new ChessMove(start, end, ChessPiece.PieceType.KNIGHT);
-        ChessMove pawnNull = new ChessMove(start, end, null);
-        pawns.add(pawnRook);
-        pawns.add(pawnKnight);
-        pawns.add(pawnBishop);
-        pawns.add(pawnQueen);
-        pawns.add(pawnNull);
-        return pawns;
+    /**
+     * @return how many moves unmakeMove can currently take back
+     */
+    public int getUndoDepth() {
+        return undoCount;
+    }
+
+    private void pushUndo(long record) {
+        if (undoCount == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoCount * 2);
+        }
+        undoStack[undoCount++] = record;
+    }
+
+    private static TeamColor opposite(TeamColor color) {
+        return (color == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
     }
 
+    /**
+     * Determines if the given team is in check
+     *
+     * @param teamColor which team to check for check
+     * @return True if the specified team is in check
+     */
+    public boolean isInCheck(TeamColor teamColor) {
+        Bitboard bits = getBoard().getBitboard();
+        int us = Bitboard.colorIndex(teamColor);
+        int king = bits.kingSquare(us);
+        return king >= 0 && bits.isAttacked(king, 1 - us);
+    }
 
     /**
      * Determines if the given team is in checkmate
@@ -208,29 +329,7 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        Collection<ChessMove> possibleMoves = getPossibleMoves(teamColor);
-
-        return (possibleMoves.isEmpty()) && (isInCheck(teamColor));
-    }
-
-    private Collection<ChessMove> getPossibleMoves(TeamColor teamColor) {
-        ChessBoard board = getBoard();
-        Collection<ChessMove> possibleMoves = new ArrayList<>();
-
-        for (int i=0; i<8; i++) {
-            for (int j=0; j<8; j++) {
-                ChessPosition checkPos = new ChessPosition(i, j);
-                if (board.checkPiece(checkPos)) {
-                    ChessPosition pos = new ChessPosition((i+1), (j+1));
-                    ChessPiece piece = board.getPiece(pos);
-                    if (piece.getTeamColor() == teamColor) {
-                        Collection<ChessMove> moves = validMoves(pos);
-                        possibleMoves.addAll(moves);
-                    }
-                }
-            }
-        }
-        return possibleMoves;
+        return getStatus(teamColor).isCheckmate();
     }
 
     /**
@@ -241,18 +340,92 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        Collection<ChessMove> possibleMoves = getPossibleMoves(teamColor);
+        return getStatus(teamColor).isStalemate();
+    }
+
+    /**
+     * Gets whether a team is in check and how many legal moves it has. The
+     * status is worked out once per position and cached until the position
+     * changes, so asking about check, checkmate and stalemate in turn only
+     * generates the team's moves once.
+     *
+     * @param teamColor which team to get the status of
+     * @return the team's status in the current position
+     */
+    public GameStatus getStatus(TeamColor teamColor) {
+        int color = Bitboard.colorIndex(teamColor);
+        long key = getZobristKey();
+        GameStatus status = statuses[color];
+        if (status == null || statusKeys[color] != key) {
+            MoveList moves = scratchMoves();
+            MoveGenerator.legalMoves(getBoard(), teamColor, castlingRights,
+                    (teamColor == teamTurn) ? enPassantSquare : -1, ~0L, ~0L, moves);
+            status = new GameStatus(teamColor, isInCheck(teamColor), moves.size());
+            statuses[color] = status;
+            statusKeys[color] = key;
+        }
+        return status;
+    }
+
+    /**
+     * @return an empty move list that is reused between calls, so it must not
+     * be held on to
+     */
+    private MoveList scratchMoves() {
+        if (scratchMoves == null) {
+            scratchMoves = new MoveList();
+        }
+        scratchMoves.clear();
+        return scratchMoves;
+    }
 
-        return (possibleMoves.isEmpty()) && (!isInCheck(teamColor));
+    /**
+     * Creates a game from a FEN string (see Fen)
+     *
+     * @throws IllegalArgumentException if the text is not a valid FEN
+     */
+    public static ChessGame fromFen(String fen) {
+        return Fen.parse(fen);
+    }
+
+    /**
+     * @return this position as a FEN string (see Fen)
+     */
+    public String toFen() {
+        return Fen.format(this);
+    }
+
+    /**
+     * Gets the Zobrist key of this position: the board's incrementally
+     * maintained piece key combined with the side to move, the castling rights
+     * and the en passant file. Equal positions always have equal keys.
+     *
+     * @return the 64-bit position key
+     */
+    public long getZobristKey() {
+        long key = getBoard().getBitboard().key();
+        if (teamTurn == TeamColor.BLACK) {
+            key ^= Zobrist.blackToMove();
+        }
+        key ^= Zobrist.castling(castlingRights);
+        if (enPassantSquare >= 0) {
+            key ^= Zobrist.enPassant(enPassantSquare & 7);
+        }
+        return key;
     }
 
     /**
-     * Sets this game's chessboard with a given board
+     * Sets this game's chessboard with a given board. The board carries no
+     * history, so castling rights are given to each king and rook still on
+     * their starting squares and there is no en passant square.
      *
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
         gameBoard = board;
+        undoCount = 0;
+        castlingRights = Castling.inferRights(board);
+        enPassantSquare = -1;
     }
 
     /**
@@ -270,12 +443,13 @@ public class ChessGame {
             return false;
         }
         ChessGame chessGame = (ChessGame) o;
-        return teamTurn == chessGame.teamTurn && Objects.equals(gameBoard, chessGame.gameBoard);
+        return teamTurn == chessGame.teamTurn && castlingRights == chessGame.castlingRights
+                && enPassantSquare == chessGame.enPassantSquare && Objects.equals(gameBoard, chessGame.gameBoard);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(teamTurn, gameBoard);
+        return Long.hashCode(getZobristKey());
     }
 
     @Override
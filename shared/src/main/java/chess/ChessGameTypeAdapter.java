@@ -1,63 +1,155 @@
 package chess;
 
-import com.google.gson.*;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
-import java.lang.reflect.Type;
-import java.util.Objects;
+import java.io.IOException;
+
+/**
+ * Reads and writes a ChessGame as a stream of JSON tokens, without building a
+ * tree. The JSON matches what Gson's reflection produced before:
+ * {@code {"teamTurn":"WHITE","gameBoard":{"squares":[[...],...]},"ended":false,
+ * "castlingRights":15,"enPassantSquare":-1}}
+ * with the squares as eight rows from rank 1, each holding a piece object or null.
+ * JSON saved before castling was tracked has no rights, so they are worked out
+ * from the board.
+ */
+public class ChessGameTypeAdapter extends TypeAdapter<ChessGame> {
+
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
 
-public class ChessGameTypeAdapter implements JsonDeserializer<ChessGame> {
     @Override
-    public ChessGame deserialize(JsonElement element, Type type, JsonDeserializationContext json) throws JsonParseException {
-        String turn = element.getAsJsonObject().get("teamTurn").getAsString();
-        ChessBoard chessBoard = new ChessBoard();
-        ChessGame.TeamColor teamTurn;
-        if (Objects.equals(turn, "WHITE")) {
-            teamTurn = ChessGame.TeamColor.WHITE;
-        } else {
-            teamTurn = ChessGame.TeamColor.BLACK;
-        }
-        JsonObject board = element.getAsJsonObject().get("gameBoard").getAsJsonObject();
-        JsonArray array = board.get("squares").getAsJsonArray();
-        for (int row = 0; row < array.size(); row++) {
-            JsonArray pieceRow = array.get(row).getAsJsonArray();
-            for (int col = 0; col < pieceRow.size(); col++) {
-                if (!pieceRow.get(col).isJsonObject()) {
-                    continue;
-                }
-                JsonObject piece = pieceRow.get(col).getAsJsonObject();
-                String color = piece.get("pieceColor").getAsString();
-                String pType = piece.get("type").getAsString();
-                ChessGame.TeamColor pColor;
-                if (color.equals("WHITE")) {
-                    pColor = ChessGame.TeamColor.WHITE;
+    public void write(JsonWriter out, ChessGame game) throws IOException {
+        if (game == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("teamTurn").value(game.getTeamTurn().name());
+        out.name("gameBoard").beginObject();
+        out.name("squares").beginArray();
+        ChessBoard board = game.getBoard();
+        for (int row = 0; row < 8; row++) {
+            out.beginArray();
+            for (int col = 0; col < 8; col++) {
+                ChessPiece piece = board.squares[row][col];
+                if (piece == null) {
+                    out.nullValue();
                 } else {
-                    pColor = ChessGame.TeamColor.BLACK;
+                    out.beginObject();
+                    out.name("pieceColor").value(piece.getTeamColor().name());
+                    out.name("type").value(piece.getPieceType().name());
+                    out.endObject();
                 }
-                ChessPiece.PieceType pieceType = getPieceType(pType);
-                ChessPosition pos = new ChessPosition(row + 1, col + 1);
-                chessBoard.addPiece(pos, new ChessPiece(pColor, pieceType));
+            }
+            out.endArray();
+        }
+        out.endArray();
+        out.endObject();
+        out.name("ended").value(game.isEnded());
+        out.name("castlingRights").value(game.getCastlingRights());
+        out.name("enPassantSquare").value(game.getEnPassantSquare());
+        out.endObject();
+    }
+
+    @Override
+    public ChessGame read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        ChessGame.TeamColor teamTurn = ChessGame.TeamColor.WHITE;
+        ChessBoard board = new ChessBoard();
+        boolean ended = false;
+        int castlingRights = -1;
+        int enPassantSquare = -1;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "teamTurn" -> teamTurn = readEnum(in, COLORS);
+                case "gameBoard" -> readBoard(in, board);
+                case "ended" -> ended = in.nextBoolean();
+                case "castlingRights" -> castlingRights = in.nextInt();
+                case "enPassantSquare" -> enPassantSquare = in.nextInt();
+                default -> in.skipValue();
             }
         }
-        boolean end = element.getAsJsonObject().get("ended").getAsBoolean();
+        in.endObject();
+
         ChessGame game = new ChessGame();
-        game.setBoard(chessBoard);
+        game.setBoard(board);
         game.setTeamTurn(teamTurn);
-        if (end) {
+        if (ended) {
             game.setEnded();
         }
+        if (castlingRights >= 0) {
+            game.setPositionState(castlingRights & Castling.ALL, enPassantSquare);
+        }
         return game;
     }
 
-    private static ChessPiece.PieceType getPieceType(String typeStr) {
+    private static void readBoard(JsonReader in, ChessBoard board) throws IOException {
+        in.beginObject();
+        while (in.hasNext()) {
+            if (!in.nextName().equals("squares")) {
+                in.skipValue();
+                continue;
+            }
+            in.beginArray();
+            for (int row = 0; in.hasNext(); row++) {
+                if (row == 8) {
+                    throw new IOException("Board has more than 8 rows at " + in.getPath());
+                }
+                in.beginArray();
+                for (int col = 0; in.hasNext(); col++) {
+                    if (col == 8) {
+                        throw new IOException("Board row has more than 8 squares at " + in.getPath());
+                    }
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                    } else {
+                        board.setPiece(Bitboard.square(row + 1, col + 1), readPiece(in));
+                    }
+                }
+                in.endArray();
+            }
+            in.endArray();
+        }
+        in.endObject();
+    }
+
+    private static ChessPiece readPiece(JsonReader in) throws IOException {
+        ChessGame.TeamColor color = null;
         ChessPiece.PieceType type = null;
-        switch (typeStr) {
-            case "KING" -> type = ChessPiece.PieceType.KING;
-            case "QUEEN" -> type = ChessPiece.PieceType.QUEEN;
-            case "BISHOP" -> type = ChessPiece.PieceType.BISHOP;
-            case "KNIGHT" -> type = ChessPiece.PieceType.KNIGHT;
-            case "ROOK" -> type = ChessPiece.PieceType.ROOK;
-            case "PAWN" -> type = ChessPiece.PieceType.PAWN;
-        }
-        return type;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "pieceColor" -> color = readEnum(in, COLORS);
+                case "type" -> type = readEnum(in, TYPES);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if (color == null || type == null) {
+            throw new IOException("Chess piece is missing its color or type at " + in.getPath());
+        }
+        return ChessPiece.of(color, type);
+    }
+
+    /**
+     * Matches the constant name without Enum.valueOf, which throws for unknown names
+     */
+    private static <E extends Enum<E>> E readEnum(JsonReader in, E[] values) throws IOException {
+        String name = in.nextString();
+        for (E value : values) {
+            if (value.name().equals(name)) {
+                return value;
+            }
+        }
+        throw new IOException("Unknown value \"" + name + "\" at " + in.getPath());
     }
 }
@@ -14,6 +14,13 @@ public class ChessMove {
     private final ChessPosition endPosition;
     private final ChessPiece.PieceType promotionPiece;
 
+    // (from * 64 + to) * 7 + promotion slot, where slot 0 is no promotion and
+    // slot n is PieceType ordinal n - 1. Filled lazily; two threads racing to
+    // fill a slot just make equal moves, and final fields make either one safe
+    // to share.
+    private static final int PROMOTION_SLOTS = ChessPiece.PieceType.values().length + 1;
+    private static final ChessMove[] MOVES = new ChessMove[64 * 64 * PROMOTION_SLOTS];
+
     public ChessMove(ChessPosition startPosition, ChessPosition endPosition,
                      ChessPiece.PieceType promotionPiece) {
         this.startPosition = startPosition;
@@ -21,6 +28,39 @@ public class ChessMove {
         this.promotionPiece = promotionPiece;
     }
 
+    /**
+     * Gets a shared move instead of allocating one. Moves with a position off
+     * the board are not cached and are created as usual.
+     */
+    public static ChessMove of(ChessPosition startPosition, ChessPosition endPosition,
+                               ChessPiece.PieceType promotionPiece) {
+        if (!onBoard(startPosition) || !onBoard(endPosition)) {
+            return new ChessMove(startPosition, endPosition, promotionPiece);
+        }
+        return of(Bitboard.square(startPosition), Bitboard.square(endPosition), promotionPiece);
+    }
+
+    /**
+     * @param from Bitboard square index of the start position
+     * @param to   Bitboard square index of the end position
+     */
+    static ChessMove of(int from, int to, ChessPiece.PieceType promotionPiece) {
+        int slot = (promotionPiece == null) ? 0 : promotionPiece.ordinal() + 1;
+        int index = ((from << 6) | to) * PROMOTION_SLOTS + slot;
+        ChessMove move = MOVES[index];
+        if (move == null) {
+            move = new ChessMove(ChessPosition.ofSquare(from), ChessPosition.ofSquare(to), promotionPiece);
+            MOVES[index] = move;
+        }
+        return move;
+    }
+
+    private static boolean onBoard(ChessPosition position) {
+        int row = position.getRow();
+        int col = position.getColumn();
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
     /**
      * @return ChessPosition of starting location
      */
@@ -63,6 +103,8 @@ public class ChessMove {
 
     @Override
     public int hashCode() {
-        return Objects.hash(startPosition, endPosition, promotionPiece);
+        int hash = Objects.hashCode(startPosition);
+        hash = hash * 31 + Objects.hashCode(endPosition);
+        return hash * 31 + ((promotionPiece == null) ? 0 : promotionPiece.ordinal() + 1);
     }
 }
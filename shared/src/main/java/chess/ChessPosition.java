@@ -1,7 +1,5 @@
 package chess;
 
-import java.util.Objects;
-
 /**
  * Represents a single square position on a chess board
  * <p>
@@ -13,11 +11,39 @@ public class ChessPosition {
     private final int row;
     private final int col;
 
+    /** The 64 on-board positions, indexed by Bitboard square */
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < SQUARES.length; square++) {
+            SQUARES[square] = new ChessPosition(Bitboard.row(square), Bitboard.column(square));
+        }
+    }
+
     public ChessPosition(int row, int col) {
         this.row = row;
         this.col = col;
     }
 
+    /**
+     * Gets a shared position instead of allocating one. Positions off the
+     * board (such as the zero-based ones ChessBoard.checkPiece takes) are
+     * not cached and are created as usual.
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return SQUARES[Bitboard.square(row, col)];
+    }
+
+    /**
+     * @param square a Bitboard square index, 0-63
+     */
+    static ChessPosition ofSquare(int square) {
+        return SQUARES[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -50,6 +76,6 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        return row * 31 + col;
     }
 }
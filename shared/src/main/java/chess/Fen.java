@@ -0,0 +1,221 @@
+package chess;
+
+/**
+ * Reads and writes Forsyth-Edwards Notation, the one-line position format
+ * used by most chess software, for example
+ * {@code rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1}.
+ * <p>
+ * The parser walks the characters once, without regex, split or substrings.
+ * ChessGame does not track the move clocks, so they are checked and then
+ * dropped, and written back as "0" and "1". Only the placement and side to
+ * move are required; the other fields may be left off the end, in which case
+ * castling rights are worked out from the board as ChessGame.setBoard does.
+ * <p>
+ * ChessGame only keeps an en passant square a pawn can actually capture onto,
+ * so a FEN that names one no pawn can use reads back with "-".
+ */
+public final class Fen {
+
+    public static final String STARTING_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECE_LETTERS = "kqbnrp";
+
+    private Fen() {
+
+    }
+
+    /**
+     * @throws IllegalArgumentException if the text is not a valid FEN
+     */
+    public static ChessGame parse(CharSequence fen) {
+        ChessBoard board = new ChessBoard();
+        int i = parsePlacement(fen, board);
+        i = expectSpace(fen, i);
+
+        ChessGame.TeamColor turn = switch (charAt(fen, i)) {
+            case 'w' -> ChessGame.TeamColor.WHITE;
+            case 'b' -> ChessGame.TeamColor.BLACK;
+            default -> throw error(fen, i, "expected 'w' or 'b' for the side to move");
+        };
+        i++;
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(turn);
+        int rights = game.getCastlingRights();
+        int enPassant = -1;
+        if (i < fen.length()) {
+            i = expectSpace(fen, i);
+            int start = i;
+            i = skipCastling(fen, i);
+            rights = parseCastling(fen, start, i);
+        }
+        if (i < fen.length()) {
+            i = expectSpace(fen, i);
+            int start = i;
+            i = skipEnPassant(fen, i);
+            if (i - start == 2) {
+                enPassant = Bitboard.square(fen.charAt(start + 1) - '0', fen.charAt(start) - 'a' + 1);
+            }
+        }
+        if (i < fen.length()) {
+            i = skipNumber(fen, expectSpace(fen, i));
+        }
+        if (i < fen.length()) {
+            i = skipNumber(fen, expectSpace(fen, i));
+        }
+        if (i != fen.length()) {
+            throw error(fen, i, "unexpected text after the position");
+        }
+
+        game.setPositionState(rights, enPassant);
+        return game;
+    }
+
+    public static String format(ChessGame game) {
+        StringBuilder fen = new StringBuilder(90);
+        appendPlacement(fen, game.getBoard());
+        fen.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+        fen.append(Castling.toFen(game.getCastlingRights()));
+        int enPassant = game.getEnPassantSquare();
+        if (enPassant < 0) {
+            fen.append(" -");
+        } else {
+            fen.append(' ').append((char) ('a' + (enPassant & 7))).append((char) ('1' + (enPassant >>> 3)));
+        }
+        fen.append(" 0 1");
+        return fen.toString();
+    }
+
+    /**
+     * Writes the piece placement field: ranks 8 to 1, separated by '/', with
+     * runs of empty squares as digits
+     */
+    static void appendPlacement(StringBuilder fen, ChessBoard board) {
+        for (int row = 7; row >= 0; row--) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                ChessPiece piece = board.squares[row][col];
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                char letter = PIECE_LETTERS.charAt(piece.getPieceType().ordinal());
+                fen.append(piece.getTeamColor() == ChessGame.TeamColor.WHITE ? Character.toUpperCase(letter) : letter);
+            }
+            if (empty > 0) {
+                fen.append((char) ('0' + empty));
+            }
+            if (row > 0) {
+                fen.append('/');
+            }
+        }
+    }
+
+    /**
+     * @return the index just past the placement field
+     */
+    private static int parsePlacement(CharSequence fen, ChessBoard board) {
+        int i = 0;
+        for (int row = 7; row >= 0; row--) {
+            int col = 0;
+            while (col < 8) {
+                char c = charAt(fen, i);
+                if (c >= '1' && c <= '8') {
+                    col += c - '0';
+                    if (col > 8) {
+                        throw error(fen, i, "rank has more than eight squares");
+                    }
+                } else {
+                    int type = PIECE_LETTERS.indexOf(Character.toLowerCase(c));
+                    if (type < 0) {
+                        throw error(fen, i, "unknown piece '" + c + "'");
+                    }
+                    ChessGame.TeamColor color = Character.isUpperCase(c) ? ChessGame.TeamColor.WHITE
+                            : ChessGame.TeamColor.BLACK;
+                    board.setPiece((row << 3) | col, ChessPiece.BY_INDEX[Bitboard.colorIndex(color)
+                            * Bitboard.PIECE_TYPES + type]);
+                    col++;
+                }
+                i++;
+            }
+            if (row > 0) {
+                if (charAt(fen, i) != '/') {
+                    throw error(fen, i, "expected '/' after eight squares");
+                }
+                i++;
+            }
+        }
+        return i;
+    }
+
+    private static int skipCastling(CharSequence fen, int i) {
+        if (charAt(fen, i) == '-') {
+            return i + 1;
+        }
+        int start = i;
+        while (i < fen.length() && "KQkq".indexOf(fen.charAt(i)) >= 0) {
+            i++;
+        }
+        if (i == start) {
+            throw error(fen, i, "expected castling rights or '-'");
+        }
+        return i;
+    }
+
+    private static int parseCastling(CharSequence fen, int start, int end) {
+        int rights = Castling.NONE;
+        for (int i = start; i < end; i++) {
+            int right = Castling.fromFenLetter(fen.charAt(i));
+            if (right >= 0) {
+                rights |= right;
+            }
+        }
+        return rights;
+    }
+
+    private static int skipEnPassant(CharSequence fen, int i) {
+        char file = charAt(fen, i);
+        if (file == '-') {
+            return i + 1;
+        }
+        char rank = charAt(fen, i + 1);
+        if (file < 'a' || file > 'h' || (rank != '3' && rank != '6')) {
+            throw error(fen, i, "expected an en passant square or '-'");
+        }
+        return i + 2;
+    }
+
+    private static int skipNumber(CharSequence fen, int i) {
+        int start = i;
+        while (i < fen.length() && Character.isDigit(fen.charAt(i))) {
+            i++;
+        }
+        if (i == start) {
+            throw error(fen, i, "expected a number");
+        }
+        return i;
+    }
+
+    private static int expectSpace(CharSequence fen, int i) {
+        if (charAt(fen, i) != ' ') {
+            throw error(fen, i, "expected a space");
+        }
+        return i + 1;
+    }
+
+    private static char charAt(CharSequence fen, int i) {
+        if (i >= fen.length()) {
+            throw error(fen, i, "unexpected end of text");
+        }
+        return fen.charAt(i);
+    }
+
+    private static IllegalArgumentException error(CharSequence fen, int i, String problem) {
+        return new IllegalArgumentException("Invalid FEN at character " + i + ": " + problem + " in \"" + fen + "\"");
+    }
+}
@@ -0,0 +1,107 @@
+package chess;
+
+/**
+ * Packs a ChessGame into a fixed 35 byte record for storage, and reads it back
+ * without going through Gson.
+ * <p>
+ * Layout:
+ * <pre>
+ * byte 0      format version
+ * byte 1      flags: bit 0 set if black is to move, bit 1 set if the game has
+ *             ended, bits 2-5 the Castling rights
+ * byte 2      en passant square, or NO_SQUARE
+ * bytes 3-34  board, two squares per byte from a1 to h8, even square in the
+ *             low nibble; 0 is empty, otherwise Bitboard piece index + 1
+ * </pre>
+ * Version 1 records, written before castling was tracked, always have
+ * NO_SQUARE and no rights; their rights are worked out from the board.
+ */
+public final class GameCodec {
+
+    public static final int VERSION = 2;
+    public static final int SIZE = 3 + 32;
+
+    private static final int BLACK_TO_MOVE = 1;
+    private static final int ENDED = 1 << 1;
+    private static final int RIGHTS_SHIFT = 2;
+    private static final int NO_SQUARE = 0xFF;
+    private static final int BOARD_OFFSET = 3;
+
+    private GameCodec() {
+
+    }
+
+    public static byte[] encode(ChessGame game) {
+        byte[] bytes = new byte[SIZE];
+        bytes[0] = VERSION;
+        int flags = 0;
+        if (game.getTeamTurn() == ChessGame.TeamColor.BLACK) {
+            flags |= BLACK_TO_MOVE;
+        }
+        if (game.isEnded()) {
+            flags |= ENDED;
+        }
+        flags |= game.getCastlingRights() << RIGHTS_SHIFT;
+        bytes[1] = (byte) flags;
+        int enPassant = game.getEnPassantSquare();
+        bytes[2] = (byte) (enPassant < 0 ? NO_SQUARE : enPassant);
+
+        ChessBoard board = game.getBoard();
+        for (int square = 0; square < 64; square += 2) {
+            int low = nibble(board.pieceAt(square));
+            int high = nibble(board.pieceAt(square + 1));
+            bytes[BOARD_OFFSET + (square >>> 1)] = (byte) (low | (high << 4));
+        }
+        return bytes;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not a game written by encode
+     */
+    public static ChessGame decode(byte[] bytes) {
+        if (bytes.length != SIZE) {
+            throw new IllegalArgumentException("Encoded game must be " + SIZE + " bytes, not " + bytes.length);
+        }
+        int version = bytes[0];
+        if (version != 1 && version != VERSION) {
+            throw new IllegalArgumentException("Unknown encoded game version " + bytes[0]);
+        }
+
+        ChessBoard board = new ChessBoard();
+        for (int i = 0; i < 32; i++) {
+            int packed = bytes[BOARD_OFFSET + i];
+            setSquare(board, i << 1, packed & 0xF);
+            setSquare(board, (i << 1) + 1, (packed >>> 4) & 0xF);
+        }
+
+        int flags = bytes[1];
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn((flags & BLACK_TO_MOVE) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        if ((flags & ENDED) != 0) {
+            game.setEnded();
+        }
+        if (version > 1) {
+            int enPassant = bytes[2] & 0xFF;
+            game.setPositionState((flags >>> RIGHTS_SHIFT) & Castling.ALL, enPassant == NO_SQUARE ? -1 : enPassant);
+        }
+        return game;
+    }
+
+    private static int nibble(ChessPiece piece) {
+        if (piece == null) {
+            return 0;
+        }
+        return Bitboard.pieceIndex(piece) + 1;
+    }
+
+    private static void setSquare(ChessBoard board, int square, int nibble) {
+        if (nibble == 0) {
+            return;
+        }
+        if (nibble > 2 * Bitboard.PIECE_TYPES) {
+            throw new IllegalArgumentException("Unknown piece code " + nibble + " on square " + square);
+        }
+        board.setPiece(square, ChessPiece.BY_INDEX[nibble - 1]);
+    }
+}
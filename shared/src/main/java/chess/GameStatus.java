@@ -0,0 +1,27 @@
+package chess;
+
+/**
+ * Whether a team is in check and how many legal moves it has, which together
+ * decide checkmate and stalemate. Get one from ChessGame.getStatus.
+ *
+ * @param team       the team the status is for
+ * @param inCheck    true if the team's king is attacked
+ * @param legalMoves number of legal moves the team has
+ */
+public record GameStatus(ChessGame.TeamColor team, boolean inCheck, int legalMoves) {
+
+    public boolean isCheckmate() {
+        return inCheck && legalMoves == 0;
+    }
+
+    public boolean isStalemate() {
+        return !inCheck && legalMoves == 0;
+    }
+
+    /**
+     * @return true if the team can no longer move, by checkmate or stalemate
+     */
+    public boolean isGameOver() {
+        return legalMoves == 0;
+    }
+}
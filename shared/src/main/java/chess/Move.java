@@ -0,0 +1,106 @@
+package chess;
+
+/**
+ * Moves packed into an int, for move generation and search where a ChessMove
+ * (an object holding two ChessPosition objects) per move would be garbage.
+ * <p>
+ * Layout: from square (bits 0-5) | to square (6-11) | promotion type ordinal
+ * + 1, or 0 for none (12-14) | flags (16-19). Squares are Bitboard square
+ * indexes. The whole move fits in the 20 bits a TranspositionTable entry
+ * holds. Convert to a ChessMove with toChessMove only where a move leaves
+ * the package's public API.
+ */
+public final class Move {
+
+    /** Not a move: no piece moves from a1 to a1 */
+    public static final int NONE = 0;
+
+    /** Set on moves that take a piece, including en passant */
+    public static final int CAPTURE = 1 << 16;
+
+    /** Set on a king's two-square castling move; the rook moves with it */
+    public static final int CASTLE = 1 << 17;
+
+    /** Set on a pawn capture en passant, whose victim is not on the to square */
+    public static final int EN_PASSANT = 1 << 18;
+
+    private static final int TO_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int SQUARES_AND_PROMOTION = 0x7FFF;
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Move() {
+
+    }
+
+    public static int of(int from, int to) {
+        return from | (to << TO_SHIFT);
+    }
+
+    /**
+     * @param promotion piece type a pawn promotes to, or null
+     * @param flags     CAPTURE, CASTLE and EN_PASSANT bits, or 0
+     */
+    public static int of(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int move = from | (to << TO_SHIFT) | flags;
+        if (promotion != null) {
+            move |= (promotion.ordinal() + 1) << PROMOTION_SHIFT;
+        }
+        return move;
+    }
+
+    /**
+     * Packs a ChessMove. The result has no flags set, so compare it with
+     * generated moves using sameMove.
+     */
+    public static int of(ChessMove move) {
+        return of(Bitboard.square(move.getStartPosition()), Bitboard.square(move.getEndPosition()),
+                move.getPromotionPiece(), 0);
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> TO_SHIFT) & 63;
+    }
+
+    /**
+     * @return the type a pawn promotes to, or null if the move is not a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int type = (move >>> PROMOTION_SHIFT) & 7;
+        return (type == 0) ? null : TYPES[type - 1];
+    }
+
+    public static boolean isPromotion(int move) {
+        return ((move >>> PROMOTION_SHIFT) & 7) != 0;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        return (move & CASTLE) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & EN_PASSANT) != 0;
+    }
+
+    /**
+     * @return true if two moves have the same squares and promotion, ignoring flags
+     */
+    public static boolean sameMove(int a, int b) {
+        return ((a ^ b) & SQUARES_AND_PROMOTION) == 0;
+    }
+
+    /**
+     * @return the shared ChessMove for a packed move (see ChessMove.of)
+     */
+    public static ChessMove toChessMove(int move) {
+        return ChessMove.of(from(move), to(move), promotion(move));
+    }
+}
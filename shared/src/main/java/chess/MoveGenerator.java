@@ -0,0 +1,309 @@
+package chess;
+
+import java.util.Collection;
+
+/**
+ * Generates only legal moves, without making each candidate move and testing
+ * for check afterwards.
+ * <p>
+ * The checkers and pinned pieces are worked out once per call. A piece may
+ * only move to squares that capture the single checker or block its ray, a
+ * pinned piece may only move along the line through its king and pinner, and
+ * the king may only step to squares the enemy does not attack once the king
+ * itself is taken off the board. In double check only the king moves.
+ */
+public final class MoveGenerator {
+
+    private static final long WHITE_DOUBLE_PUSH_ROW = 0x0000000000FF0000L;
+    private static final long BLACK_DOUBLE_PUSH_ROW = 0x0000FF0000000000L;
+    private static final long PROMOTION_RANKS = 0xFF000000000000FFL;
+    private static final ChessPiece.PieceType[] PROMOTION_TYPES = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT
+    };
+
+    private MoveGenerator() {
+
+    }
+
+    /**
+     * Adds every legal move for a team's pieces on the given squares.
+     * Castling and en passant depend on the game's history, not just the
+     * board, so the board-only versions leave them out; use the ChessGame
+     * versions for a game in progress.
+     *
+     * @param board     the position
+     * @param teamColor which team is moving
+     * @param fromMask  bitboard of the squares to generate moves from
+     * @param moves     where to add the moves
+     */
+    public static void legalMoves(ChessBoard board, ChessGame.TeamColor teamColor, long fromMask,
+                                  Collection<ChessMove> moves) {
+        legalMoves(board, teamColor, fromMask, ~0L, moves);
+    }
+
+    /**
+     * Adds every legal move for a team's pieces on the given squares that lands
+     * on one of the given destination squares. Passing the enemy pieces as the
+     * destinations, for example, generates only captures.
+     *
+     * @param toMask bitboard of the squares moves may end on
+     */
+    public static void legalMoves(ChessBoard board, ChessGame.TeamColor teamColor, long fromMask, long toMask,
+                                  Collection<ChessMove> moves) {
+        MoveList list = new MoveList();
+        legalMoves(board, teamColor, Castling.NONE, -1, fromMask, toMask, list);
+        list.addTo(moves);
+    }
+
+    /**
+     * Packed-move version of legalMoves, which allocates nothing
+     */
+    public static void legalMoves(ChessBoard board, ChessGame.TeamColor teamColor, long fromMask, MoveList moves) {
+        legalMoves(board, teamColor, Castling.NONE, -1, fromMask, ~0L, moves);
+    }
+
+    /**
+     * Packed-move version of legalMoves with a destination mask, which
+     * allocates nothing
+     */
+    public static void legalMoves(ChessBoard board, ChessGame.TeamColor teamColor, long fromMask, long toMask,
+                                  MoveList moves) {
+        legalMoves(board, teamColor, Castling.NONE, -1, fromMask, toMask, moves);
+    }
+
+    /**
+     * Adds every legal move for the team to move in a game, including castling
+     * and en passant
+     */
+    public static void legalMoves(ChessGame game, long fromMask, Collection<ChessMove> moves) {
+        MoveList list = new MoveList();
+        legalMoves(game, fromMask, ~0L, list);
+        list.addTo(moves);
+    }
+
+    /**
+     * Packed-move version of the ChessGame legalMoves, which allocates nothing
+     */
+    public static void legalMoves(ChessGame game, long fromMask, MoveList moves) {
+        legalMoves(game, fromMask, ~0L, moves);
+    }
+
+    /**
+     * Adds every legal move for the team to move in a game that lands on one
+     * of the given destination squares. An en passant capture counts as
+     * landing on the captured pawn's square too, so passing the enemy pieces
+     * still generates every capture.
+     */
+    public static void legalMoves(ChessGame game, long fromMask, long toMask, MoveList moves) {
+        legalMoves(game.getBoard(), game.getTeamTurn(), game.getCastlingRights(), game.getEnPassantSquare(),
+                fromMask, toMask, moves);
+    }
+
+    /**
+     * @param castlingRights  Castling rights the team may use
+     * @param enPassantSquare square a pawn of the team may capture onto en
+     *                        passant, or -1 for none
+     */
+    static void legalMoves(ChessBoard board, ChessGame.TeamColor teamColor, int castlingRights,
+                           int enPassantSquare, long fromMask, long toMask, MoveList moves) {
+        Bitboard bits = board.getBitboard();
+        int us = Bitboard.colorIndex(teamColor);
+        int them = 1 - us;
+        long own = bits.color(us);
+        long enemy = bits.color(them);
+        long occupied = bits.occupied();
+        long king = bits.pieces(us * Bitboard.PIECE_TYPES + ChessPiece.PieceType.KING.ordinal());
+
+        long checkMask = toMask;
+        long pinned = 0;
+        int kingSquare = -1;
+        if (king != 0) {
+            kingSquare = Long.numberOfTrailingZeros(king);
+            long checkers = attackersTo(bits, kingSquare, them, occupied);
+            if ((fromMask & king) != 0) {
+                addKingMoves(bits, kingSquare, them, own | ~toMask, occupied, enemy, moves);
+            }
+            if (Long.bitCount(checkers) > 1) {
+                return;
+            }
+            if (checkers == 0 && (fromMask & king) != 0) {
+                addCastles(bits, us, kingSquare, castlingRights, toMask, moves);
+            }
+            if (checkers != 0) {
+                checkMask &= checkers | AttackTables.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+            }
+
+            long snipers = (AttackTables.rookAttacks(kingSquare, enemy) & rookMovers(bits, them))
+                    | (AttackTables.bishopAttacks(kingSquare, enemy) & bishopMovers(bits, them));
+            while (snipers != 0) {
+                int sniper = Long.numberOfTrailingZeros(snipers);
+                snipers &= snipers - 1;
+                long blockers = AttackTables.between(kingSquare, sniper) & occupied;
+                if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) {
+                    pinned |= blockers;
+                }
+            }
+        }
+
+        long pieces = own & fromMask & ~king;
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            ChessPiece piece = board.pieceAt(from);
+            long targets = pseudoTargets(bits, Bitboard.pieceIndex(piece), from) & checkMask;
+            if ((pinned & (1L << from)) != 0) {
+                // the line through the king and a pinned piece runs through its pinner too
+                targets &= AttackTables.line(kingSquare, from);
+            }
+            boolean promotes = piece.getPieceType() == ChessPiece.PieceType.PAWN && (targets & PROMOTION_RANKS) != 0;
+            addMoves(from, targets, promotes, enemy, moves);
+        }
+
+        if (enPassantSquare >= 0) {
+            addEnPassant(bits, us, kingSquare, enPassantSquare, fromMask, toMask, moves);
+        }
+    }
+
+    /**
+     * Gets the squares a piece could move to ignoring checks: its attacks minus
+     * its own team's pieces, with pawn pushes and captures handled specially.
+     */
+    static long pseudoTargets(Bitboard bits, int pieceIndex, int from) {
+        int color = pieceIndex / Bitboard.PIECE_TYPES;
+        if (pieceIndex % Bitboard.PIECE_TYPES != ChessPiece.PieceType.PAWN.ordinal()) {
+            return AttackTables.attacks(pieceIndex, from, bits.occupied()) & ~bits.color(color);
+        }
+        long empty = ~bits.occupied();
+        long captures = AttackTables.pawnAttacks(color, from) & bits.color(1 - color);
+        long start = 1L << from;
+        long pushes;
+        if (color == Bitboard.WHITE) {
+            long single = (start << 8) & empty;
+            pushes = single | (((single & WHITE_DOUBLE_PUSH_ROW) << 8) & empty);
+        } else {
+            long single = (start >>> 8) & empty;
+            pushes = single | (((single & BLACK_DOUBLE_PUSH_ROW) >>> 8) & empty);
+        }
+        return pushes | captures;
+    }
+
+    /**
+     * @return the pieces of the given color that attack a square, with sliders
+     * blocked by the given occupancy
+     */
+    static long attackersTo(Bitboard bits, int square, int byColor, long occupied) {
+        int base = byColor * Bitboard.PIECE_TYPES;
+        return (AttackTables.pawnAttacks(1 - byColor, square) & bits.pieces(base + ChessPiece.PieceType.PAWN.ordinal()))
+                | (AttackTables.knightAttacks(square) & bits.pieces(base + ChessPiece.PieceType.KNIGHT.ordinal()))
+                | (AttackTables.kingAttacks(square) & bits.pieces(base + ChessPiece.PieceType.KING.ordinal()))
+                | (AttackTables.rookAttacks(square, occupied) & rookMovers(bits, byColor))
+                | (AttackTables.bishopAttacks(square, occupied) & bishopMovers(bits, byColor));
+    }
+
+    private static long rookMovers(Bitboard bits, int color) {
+        int base = color * Bitboard.PIECE_TYPES;
+        return bits.pieces(base + ChessPiece.PieceType.ROOK.ordinal()) | bits.pieces(base + ChessPiece.PieceType.QUEEN.ordinal());
+    }
+
+    private static long bishopMovers(Bitboard bits, int color) {
+        int base = color * Bitboard.PIECE_TYPES;
+        return bits.pieces(base + ChessPiece.PieceType.BISHOP.ordinal()) | bits.pieces(base + ChessPiece.PieceType.QUEEN.ordinal());
+    }
+
+    private static void addKingMoves(Bitboard bits, int kingSquare, int them, long own, long occupied, long enemy,
+                                     MoveList moves) {
+        long withoutKing = occupied & ~(1L << kingSquare);
+        long targets = AttackTables.kingAttacks(kingSquare) & ~own;
+        long safe = 0;
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (attackersTo(bits, to, them, withoutKing) == 0) {
+                safe |= 1L << to;
+            }
+        }
+        addMoves(kingSquare, safe, false, enemy, moves);
+    }
+
+    /**
+     * Adds the castling moves the rights allow. The caller has checked that
+     * the king is not in check; the squares between king and rook must be
+     * empty and the king may not pass through or land on an attacked square.
+     */
+    private static void addCastles(Bitboard bits, int us, int kingSquare, int rights, long toMask, MoveList moves) {
+        int home = (us == Bitboard.WHITE) ? Castling.WHITE_KING_HOME : Castling.BLACK_KING_HOME;
+        if (kingSquare != home) {
+            return;
+        }
+        int kingside = (us == Bitboard.WHITE) ? Castling.WHITE_KINGSIDE : Castling.BLACK_KINGSIDE;
+        int queenside = (us == Bitboard.WHITE) ? Castling.WHITE_QUEENSIDE : Castling.BLACK_QUEENSIDE;
+        if ((rights & kingside) != 0) {
+            addCastle(bits, us, home, home + 2, Castling.rookHome(kingside), toMask, moves);
+        }
+        if ((rights & queenside) != 0) {
+            addCastle(bits, us, home, home - 2, Castling.rookHome(queenside), toMask, moves);
+        }
+    }
+
+    private static void addCastle(Bitboard bits, int us, int from, int to, int rookSquare, long toMask,
+                                  MoveList moves) {
+        long rooks = bits.pieces(us * Bitboard.PIECE_TYPES + ChessPiece.PieceType.ROOK.ordinal());
+        if ((toMask & (1L << to)) == 0 || (rooks & (1L << rookSquare)) == 0
+                || (AttackTables.between(from, rookSquare) & bits.occupied()) != 0) {
+            return;
+        }
+        int step = (to > from) ? 1 : -1;
+        for (int square = from + step; square != to + step; square += step) {
+            if (attackersTo(bits, square, 1 - us, bits.occupied()) != 0) {
+                return;
+            }
+        }
+        moves.add(Move.of(from, to) | Move.CASTLE);
+    }
+
+    /**
+     * Adds the en passant captures onto a square. Taking the pawn clears two
+     * squares of the capturing pawn's rank at once, which can expose the king
+     * along it, so each capture is checked against the board as it would be
+     * after the move instead of with the pin and check masks.
+     */
+    private static void addEnPassant(Bitboard bits, int us, int kingSquare, int target, long fromMask, long toMask,
+                                     MoveList moves) {
+        int them = 1 - us;
+        int victim = (us == Bitboard.WHITE) ? target - 8 : target + 8;
+        if ((toMask & ((1L << target) | (1L << victim))) == 0) {
+            return;
+        }
+        int pawn = ChessPiece.PieceType.PAWN.ordinal();
+        long capturers = AttackTables.pawnAttacks(them, target) & bits.pieces(us * Bitboard.PIECE_TYPES + pawn)
+                & fromMask;
+        while (capturers != 0) {
+            int from = Long.numberOfTrailingZeros(capturers);
+            capturers &= capturers - 1;
+            if (kingSquare >= 0) {
+                long after = (bits.occupied() & ~(1L << from) & ~(1L << victim)) | (1L << target);
+                long checkers = attackersTo(bits, kingSquare, them, after) & ~(1L << victim);
+                if (checkers != 0) {
+                    continue;
+                }
+            }
+            moves.add(Move.of(from, target) | Move.CAPTURE | Move.EN_PASSANT);
+        }
+    }
+
+    private static void addMoves(int from, long targets, boolean promotes, long enemy, MoveList moves) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int flags = ((enemy >>> to) & 1L) != 0 ? Move.CAPTURE : 0;
+            if (promotes) {
+                for (ChessPiece.PieceType type : PROMOTION_TYPES) {
+                    moves.add(Move.of(from, to, type, flags));
+                }
+            } else {
+                moves.add(Move.of(from, to) | flags);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package chess;
+
+import java.util.Collection;
+
+/**
+ * A reusable list of packed moves (see Move) backed by an int[]. Keep one per
+ * search ply and clear it instead of allocating a new list at every node.
+ */
+public final class MoveList {
+
+    /** No legal position has more than 218 moves */
+    public static final int CAPACITY = 256;
+
+    private final int[] moves = new int[CAPACITY];
+    private int size;
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public void swap(int i, int j) {
+        int move = moves[i];
+        moves[i] = moves[j];
+        moves[j] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return true if the list holds a move with the same squares and promotion
+     */
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (Move.sameMove(moves[i], move)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Converts every move to a ChessMove and adds it to a collection
+     */
+    public void addTo(Collection<ChessMove> out) {
+        for (int i = 0; i < size; i++) {
+            out.add(Move.toChessMove(moves[i]));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Runs perft and other whole-tree analysis across cores with fork-join.
+ * <p>
+ * Each task owns its own copy of the game, so workers never share a board.
+ * Subtrees deeper than SPLIT_DEPTH are split again by move, which keeps every
+ * core busy even when the root has only a handful of moves. Results are
+ * combined in move generation order, so they are identical to the sequential
+ * ones no matter how the work is scheduled.
+ */
+public final class ParallelPerft {
+
+    private static final int SPLIT_DEPTH = 4;
+
+    private ParallelPerft() {
+
+    }
+
+    public static long perft(ChessGame game, int depth) {
+        return perft(game, depth, ForkJoinPool.commonPool());
+    }
+
+    public static long perft(ChessGame game, int depth, ForkJoinPool pool) {
+        return pool.invoke(new PerftTask(new ChessGame(game), depth));
+    }
+
+    /**
+     * Parallel version of Perft.divide
+     */
+    public static Map<String, Long> divide(ChessGame game, int depth, ForkJoinPool pool) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (depth == 0) {
+            return counts;
+        }
+        Map<ChessMove, Long> byMove = analyzeRootMoves(game, pool, child -> new PerftTask(child, depth - 1).invoke());
+        for (Map.Entry<ChessMove, Long> entry : byMove.entrySet()) {
+            counts.put(Perft.moveName(entry.getKey()), entry.getValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Runs an analysis on the position after each legal root move, one fork-join
+     * task per move. The analysis gets a private copy of the game with the move
+     * already applied and may change it freely.
+     *
+     * @return each root move's result, in move generation order
+     */
+    public static <T> Map<ChessMove, T> analyzeRootMoves(ChessGame game, ForkJoinPool pool,
+                                                         Function<ChessGame, T> analysis) {
+        ArrayList<ChessMove> moves = new ArrayList<>();
+        MoveGenerator.legalMoves(game, ~0L, moves);
+        List<RecursiveTask<T>> tasks = new ArrayList<>(moves.size());
+        for (ChessMove move : moves) {
+            ChessGame child = new ChessGame(game);
+            child.applyMove(move);
+            tasks.add(new RecursiveTask<>() {
+                @Override
+                protected T compute() {
+                    return analysis.apply(child);
+                }
+            });
+        }
+        return pool.invoke(new RecursiveTask<>() {
+            @Override
+            protected Map<ChessMove, T> compute() {
+                invokeAll(tasks);
+                Map<ChessMove, T> results = new LinkedHashMap<>();
+                for (int i = 0; i < moves.size(); i++) {
+                    results.put(moves.get(i), tasks.get(i).join());
+                }
+                return results;
+            }
+        });
+    }
+
+    private static final class PerftTask extends RecursiveTask<Long> {
+        private final ChessGame game;
+        private final int depth;
+
+        PerftTask(ChessGame game, int depth) {
+            this.game = game;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth <= SPLIT_DEPTH) {
+                return Perft.perft(game, depth);
+            }
+            MoveList moves = new MoveList();
+            MoveGenerator.legalMoves(game, ~0L, moves);
+            List<PerftTask> children = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                ChessGame child = new ChessGame(game);
+                child.applyMove(moves.get(i));
+                children.add(new PerftTask(child, depth - 1));
+            }
+            invokeAll(children);
+            long nodes = 0;
+            for (PerftTask child : children) {
+                nodes += child.join();
+            }
+            return nodes;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Perft ("performance test") walks the legal move tree of a game to a fixed
+ * depth and counts the leaf positions. Comparing the counts with published
+ * values checks the move generator; timing the walk measures its speed.
+ * <p>
+ * Run {@code main} for a nodes-per-second report from the starting position
+ * or a given FEN, sequential and on fork-join (see ParallelPerft).
+ */
+public final class Perft {
+
+    public record Result(int depth, long nodes, long nanos) {
+        public double nodesPerSecond() {
+            return nanos == 0 ? 0 : nodes * 1_000_000_000.0 / nanos;
+        }
+    }
+
+    private Perft() {
+
+    }
+
+    /**
+     * Counts the positions reachable in exactly depth moves. The game is left
+     * as it was found.
+     *
+     * @param game  the position to start from; the team to move is its team turn
+     * @param depth number of moves (plies) to look ahead
+     * @return the number of leaf positions
+     */
+    public static long perft(ChessGame game, int depth) {
+        MoveList[] lists = new MoveList[Math.max(depth, 1)];
+        for (int ply = 0; ply < lists.length; ply++) {
+            lists[ply] = new MoveList();
+        }
+        return perft(game, depth, lists);
+    }
+
+    private static long perft(ChessGame game, int depth, MoveList[] lists) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = lists[depth - 1];
+        moves.clear();
+        MoveGenerator.legalMoves(game, ~0L, moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.applyMove(moves.get(i));
+            nodes += perft(game, depth - 1, lists);
+            game.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Splits a perft count by first move, which narrows a wrong total down to
+     * the move whose subtree is off
+     *
+     * @return leaf counts keyed by move name (see moveName), in generation order
+     */
+    public static Map<String, Long> divide(ChessGame game, int depth) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (depth == 0) {
+            return counts;
+        }
+        ArrayList<ChessMove> moves = new ArrayList<>();
+        MoveGenerator.legalMoves(game, ~0L, moves);
+        for (ChessMove move : moves) {
+            game.applyMove(move);
+            counts.put(moveName(move), perft(game, depth - 1));
+            game.unmakeMove();
+        }
+        return counts;
+    }
+
+    /**
+     * Times a perft run
+     */
+    public static Result timed(ChessGame game, int depth) {
+        long start = System.nanoTime();
+        long nodes = perft(game, depth);
+        return new Result(depth, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * @return the move in coordinate notation, such as "e2e4" or "a7a8q"
+     */
+    public static String moveName(ChessMove move) {
+        StringBuilder name = new StringBuilder(5);
+        appendSquare(name, move.getStartPosition());
+        appendSquare(name, move.getEndPosition());
+        if (move.getPromotionPiece() != null) {
+            name.append(switch (move.getPromotionPiece()) {
+                case QUEEN -> 'q';
+                case ROOK -> 'r';
+                case BISHOP -> 'b';
+                case KNIGHT -> 'n';
+                default -> '?';
+            });
+        }
+        return name.toString();
+    }
+
+    private static void appendSquare(StringBuilder name, ChessPosition position) {
+        name.append((char) ('a' + position.getColumn() - 1)).append(position.getRow());
+    }
+
+    /**
+     * Prints a timing table for each depth up to the first argument (default
+     * 5). Any further arguments are taken as a FEN of the position to start
+     * from instead of the starting position.
+     */
+    public static void main(String[] args) {
+        int maxDepth = 5;
+        if (args.length > 0) {
+            maxDepth = Integer.parseInt(args[0]);
+        }
+        String fen = Fen.STARTING_POSITION;
+        if (args.length > 1) {
+            fen = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
+        }
+        ChessGame start = ChessGame.fromFen(fen);
+        // one untimed pass so the JIT has compiled the hot paths
+        perft(new ChessGame(start), Math.min(maxDepth, 4));
+
+        System.out.println(start.toFen());
+        System.out.println("depth          nodes       ms        nodes/s");
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            Result result = timed(new ChessGame(start), depth);
+            System.out.printf("%5d %14d %8d %14.0f%n", depth, result.nodes(),
+                    result.nanos() / 1_000_000, result.nodesPerSecond());
+        }
+
+        long begin = System.nanoTime();
+        long nodes = ParallelPerft.perft(start, maxDepth);
+        Result parallel = new Result(maxDepth, nodes, System.nanoTime() - begin);
+        System.out.printf("%5d %14d %8d %14.0f  (fork-join, %d threads)%n", maxDepth, parallel.nodes(),
+                parallel.nanos() / 1_000_000, parallel.nodesPerSecond(), ForkJoinPool.commonPool().getParallelism());
+    }
+}
@@ -0,0 +1,216 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size hash table of search results keyed by Zobrist key (see
+ * ChessGame.getZobristKey), stored entirely in one long[].
+ * <p>
+ * Each entry is two longs: the key XORed with the data, then the data. A
+ * reader recomputes the key from the pair, so an entry torn by two threads
+ * writing at once simply fails to match and reads as a miss. That makes the
+ * table safe to share between search threads without any locking.
+ * <p>
+ * Entries are grouped in buckets of four (one 64-byte cache line). When a
+ * bucket is full, the entry replaced is the one worth least: shallow entries
+ * and entries left over from earlier searches (see newSearch) go first.
+ */
+public final class TranspositionTable {
+
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1;
+    public static final int UPPER_BOUND = 2;
+
+    /** Returned by probe when the position is not in the table */
+    public static final long MISS = 0L;
+
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int LONGS_PER_BUCKET = BUCKET_ENTRIES * 2;
+
+    // data layout: move (20 bits) | score (16) | depth (8) | bound (2) | generation (6) | valid flag
+    private static final int SCORE_SHIFT = 20;
+    private static final int DEPTH_SHIFT = 36;
+    private static final int BOUND_SHIFT = 44;
+    private static final int GENERATION_SHIFT = 46;
+    private static final long VALID = 1L << 52;
+
+    private final long[] table;
+    private final int bucketMask;
+    // written by newSearch on the main thread, read by helper threads storing entries
+    private volatile int generation = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    /**
+     * @param megabytes memory budget; the table uses the largest power-of-two
+     *                  number of buckets that fits (at least one)
+     */
+    public TranspositionTable(int megabytes) {
+        int buckets = bucketCount(megabytes);
+        table = new long[buckets * LONGS_PER_BUCKET];
+        bucketMask = buckets - 1;
+    }
+
+    /**
+     * @return the number of buckets a table of this size gets, capped so the
+     * long[] stays within the largest array Java allows
+     */
+    static int bucketCount(int megabytes) {
+        long bytes = Math.max(1L, megabytes) << 20;
+        long buckets = Long.highestOneBit(bytes / (LONGS_PER_BUCKET * Long.BYTES));
+        return (int) Math.min(buckets, Integer.highestOneBit(Integer.MAX_VALUE / LONGS_PER_BUCKET));
+    }
+
+    /**
+     * Looks up a position
+     *
+     * @return the packed entry (read it with move, score, depth and bound), or MISS
+     */
+    public long probe(long key) {
+        int base = bucketIndex(key);
+        for (int i = base; i < base + LONGS_PER_BUCKET; i += 2) {
+            long data = table[i + 1];
+            if (data != 0 && (table[i] ^ data) == key) {
+                hits.increment();
+                return data;
+            }
+        }
+        misses.increment();
+        return MISS;
+    }
+
+    public long probe(ChessGame game) {
+        return probe(game.getZobristKey());
+    }
+
+    /**
+     * Stores a search result, replacing an older entry for the same key or the
+     * least valuable entry in its bucket
+     *
+     * @param move  best move as a packed Move, or Move.NONE
+     * @param score score from the side to move's point of view
+     * @param depth remaining search depth the score is valid for
+     * @param bound EXACT, LOWER_BOUND or UPPER_BOUND
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int base = bucketIndex(key);
+        int victim = base;
+        int victimWorth = Integer.MAX_VALUE;
+        for (int i = base; i < base + LONGS_PER_BUCKET; i += 2) {
+            long data = table[i + 1];
+            if (data == 0) {
+                victim = i;
+                break;
+            }
+            if ((table[i] ^ data) == key) {
+                if (move == 0) {
+                    move = move(data);
+                }
+                victim = i;
+                break;
+            }
+            int age = (generation - (int) (data >>> GENERATION_SHIFT)) & 63;
+            int worth = depth(data) - 8 * age;
+            if (worth < victimWorth) {
+                victimWorth = worth;
+                victim = i;
+            }
+        }
+        long data = (move & 0xFFFFFL)
+                | ((long) (score & 0xFFFF) << SCORE_SHIFT)
+                | ((long) Math.min(Math.max(depth, 0), 255) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) generation << GENERATION_SHIFT)
+                | VALID;
+        table[victim] = key ^ data;
+        table[victim + 1] = data;
+        stores.increment();
+    }
+
+    public void store(ChessGame game, int move, int score, int depth, int bound) {
+        store(game.getZobristKey(), move, score, depth, bound);
+    }
+
+    /**
+     * Starts a new search generation. Entries from older generations are
+     * replaced before current ones of similar depth.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 63;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+        generation = 0;
+        hits.reset();
+        misses.reset();
+        stores.reset();
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFFF);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> SCORE_SHIFT);
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> BOUND_SHIFT) & 3);
+    }
+
+    /**
+     * Packs a ChessMove into the 20-bit form stored in the table (see Move)
+     */
+    public static int encodeMove(ChessMove move) {
+        return Move.of(move);
+    }
+
+    public static ChessMove decodeMove(int move) {
+        return Move.toChessMove(move);
+    }
+
+    public int capacity() {
+        return table.length / 2;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getStores() {
+        return stores.sum();
+    }
+
+    /**
+     * Estimates how full the table is from the first thousand entries
+     *
+     * @return entries per thousand that were written during the current search
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, capacity());
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long data = table[i * 2 + 1];
+            if (data != 0 && (int) ((data >>> GENERATION_SHIFT) & 63) == generation) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    private int bucketIndex(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) * LONGS_PER_BUCKET;
+    }
+}
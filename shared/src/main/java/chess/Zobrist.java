@@ -0,0 +1,73 @@
+package chess;
+
+/**
+ * Random 64-bit keys for Zobrist hashing. A position's key is the XOR of the
+ * key of every piece on its square, the side key when black is to move, and
+ * the keys for the current castling rights and en passant file. Making a move
+ * only needs to XOR out what changed and XOR in what is new, so the key is
+ * kept up to date incrementally instead of being recomputed.
+ * <p>
+ * The keys come from a fixed seed, so a position hashes the same in every JVM
+ * and keys can be stored or compared across servers.
+ */
+public final class Zobrist {
+
+    private static final long[][] PIECES = new long[2 * Bitboard.PIECE_TYPES][64];
+    private static final long BLACK_TO_MOVE;
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+
+    private static long seed = 0x240C4E55L;
+
+    static {
+        for (long[] piece : PIECES) {
+            for (int square = 0; square < 64; square++) {
+                piece[square] = nextKey();
+            }
+        }
+        BLACK_TO_MOVE = nextKey();
+        for (int rights = 1; rights < CASTLING.length; rights++) {
+            CASTLING[rights] = nextKey();
+        }
+        for (int file = 0; file < EN_PASSANT_FILE.length; file++) {
+            EN_PASSANT_FILE[file] = nextKey();
+        }
+    }
+
+    private Zobrist() {
+
+    }
+
+    public static long piece(int pieceIndex, int square) {
+        return PIECES[pieceIndex][square];
+    }
+
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+
+    /**
+     * @param rights castling rights as a 4-bit mask; no rights hash to 0
+     */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * @param file zero-based file (column - 1) of the en passant target square
+     */
+    public static long enPassant(int file) {
+        return EN_PASSANT_FILE[file];
+    }
+
+    /**
+     * splitmix64, so the keys are well mixed even from a small seed
+     */
+    private static long nextKey() {
+        seed += 0x9E3779B97F4A7C15L;
+        long z = seed;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
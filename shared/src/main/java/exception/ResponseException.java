@@ -1,6 +1,6 @@
 package exception;
 
-import com.google.gson.Gson;
+import serialization.Serializer;
 import java.util.Map;
 
 public class ResponseException extends Exception {
@@ -14,7 +14,7 @@ public class ResponseException extends Exception {
     }
 
     public String toJson() {
-        return new Gson().toJson(Map.of("message", getMessage(), "status", code));
+        return Serializer.GSON.toJson(Map.of("message", getMessage(), "status", code));
     }
 
     public int getCode() {
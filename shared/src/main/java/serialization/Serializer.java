@@ -0,0 +1,21 @@
+package serialization;
+
+import chess.ChessGame;
+import chess.ChessGameTypeAdapter;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * The one Gson instance used by the server and client. Gson is thread safe
+ * and caches its type adapters, so it is built once here instead of per call.
+ */
+public final class Serializer {
+
+    public static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(ChessGame.class, new ChessGameTypeAdapter())
+            .create();
+
+    private Serializer() {
+
+    }
+}
@@ -1,12 +1,12 @@
 package server;
 
-import com.google.gson.Gson;
 import exception.ResponseException;
 import java.net.URI;
 import java.net.http.*;
 import java.net.http.HttpRequest.BodyPublisher;
 import java.net.http.HttpRequest.BodyPublishers;
 import model.*;
+import serialization.Serializer;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.net.*;
 import java.util.ArrayList;
@@ -120,7 +120,7 @@ public class ServerFacade {
 
     private BodyPublisher makeRequestBody(Object request) {
         if (request != null) {
-            return BodyPublishers.ofString(new Gson().toJson(request));
+            return BodyPublishers.ofString(Serializer.GSON.toJson(request));
         } else {
             return BodyPublishers.noBody();
         }
@@ -146,7 +146,7 @@ public class ServerFacade {
         }
 
         if (responseClass != null) {
-            return new Gson().fromJson(response.body(), responseClass);
+            return Serializer.GSON.fromJson(response.body(), responseClass);
         }
 
         return null;
@@ -0,0 +1,54 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class AttackTablesTests {
+
+    @Test
+    public void slidersMatchRayWalkTest() {
+        Random random = new Random(240);
+        for (int i = 0; i < 2000; i++) {
+            long occupied = random.nextLong() & random.nextLong();
+            for (int square = 0; square < 64; square++) {
+                Assertions.assertEquals(rayWalk(square, occupied, new int[][]{{1, 0}, {-1, 0}, {0, 1}, {0, -1}}),
+                        AttackTables.rookAttacks(square, occupied), "rook attacks differ on square " + square);
+                Assertions.assertEquals(rayWalk(square, occupied, new int[][]{{1, 1}, {1, -1}, {-1, 1}, {-1, -1}}),
+                        AttackTables.bishopAttacks(square, occupied), "bishop attacks differ on square " + square);
+            }
+        }
+    }
+
+    @Test
+    public void leaperTablesTest() {
+        int a1 = Bitboard.square(1, 1);
+        int e4 = Bitboard.square(4, 5);
+        Assertions.assertEquals(2, Long.bitCount(AttackTables.knightAttacks(a1)));
+        Assertions.assertEquals(8, Long.bitCount(AttackTables.knightAttacks(e4)));
+        Assertions.assertEquals(3, Long.bitCount(AttackTables.kingAttacks(a1)));
+        Assertions.assertEquals(8, Long.bitCount(AttackTables.kingAttacks(e4)));
+        Assertions.assertEquals(Bitboard.bit(Bitboard.square(5, 4)) | Bitboard.bit(Bitboard.square(5, 6)),
+                AttackTables.pawnAttacks(Bitboard.WHITE, e4));
+        Assertions.assertEquals(Bitboard.bit(Bitboard.square(2, 2)), AttackTables.pawnAttacks(Bitboard.BLACK, Bitboard.square(3, 1)));
+    }
+
+    private static long rayWalk(int square, long occupied, int[][] directions) {
+        long result = 0;
+        for (int[] dir : directions) {
+            int row = Bitboard.row(square) + dir[0];
+            int col = Bitboard.column(square) + dir[1];
+            while (row >= 1 && row <= 8 && col >= 1 && col <= 8) {
+                long bit = Bitboard.bit(Bitboard.square(row, col));
+                result |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                row += dir[0];
+                col += dir[1];
+            }
+        }
+        return result;
+    }
+}
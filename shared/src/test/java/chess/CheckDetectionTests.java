@@ -0,0 +1,91 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class CheckDetectionTests {
+
+    @Test
+    public void kingSquaresFollowMovesTest() {
+        ChessGame game = new ChessGame();
+        Bitboard bits = game.getBoard().getBitboard();
+        Assertions.assertEquals(Bitboard.square(1, 5), bits.kingSquare(Bitboard.WHITE));
+        Assertions.assertEquals(Bitboard.square(8, 5), bits.kingSquare(Bitboard.BLACK));
+
+        game.applyMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.applyMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        game.applyMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(2, 5), null));
+        Assertions.assertEquals(Bitboard.square(2, 5), bits.kingSquare(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(new ChessPosition(2, 5),
+                game.getBoard().findPiece(ChessPiece.PieceType.KING, ChessGame.TeamColor.WHITE, game.getBoard()));
+
+        game.unmakeMove();
+        Assertions.assertEquals(Bitboard.square(1, 5), bits.kingSquare(ChessGame.TeamColor.WHITE));
+
+        game.getBoard().removePiece(new ChessPosition(8, 5));
+        Assertions.assertEquals(-1, bits.kingSquare(ChessGame.TeamColor.BLACK));
+        Assertions.assertNull(game.getBoard().findPiece(ChessPiece.PieceType.KING, ChessGame.TeamColor.BLACK,
+                game.getBoard()));
+        Assertions.assertFalse(game.isInCheck(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    public void squareAttackedTest() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPosition(3, 6), ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(board.isSquareAttacked(new ChessPosition(4, 6), ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPosition(6, 1), ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(board.isSquareAttacked(new ChessPosition(6, 1), ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    public void matchesForwardScanTest() {
+        Random random = new Random(240);
+        for (int game = 0; game < 200; game++) {
+            ChessGame chess = new ChessGame();
+            for (int ply = 0; ply < 120; ply++) {
+                for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+                    Assertions.assertEquals(forwardScanCheck(chess.getBoard(), color), chess.isInCheck(color));
+                }
+                Bitboard bits = chess.getBoard().getBitboard();
+                for (int color = Bitboard.WHITE; color <= Bitboard.BLACK; color++) {
+                    long king = bits.pieces(color * Bitboard.PIECE_TYPES + ChessPiece.PieceType.KING.ordinal());
+                    Assertions.assertEquals(Long.numberOfTrailingZeros(king), bits.kingSquare(color));
+                }
+
+                List<ChessMove> moves = new ArrayList<>();
+                MoveGenerator.legalMoves(chess.getBoard(), chess.getTeamTurn(), ~0L, moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                chess.applyMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    /**
+     * The old check test: every enemy piece's attacks against the king
+     */
+    private static boolean forwardScanCheck(ChessBoard board, ChessGame.TeamColor color) {
+        Bitboard bits = board.getBitboard();
+        long king = bits.pieces(color, ChessPiece.PieceType.KING);
+        int enemy = 1 - Bitboard.colorIndex(color);
+        for (int type = 0; type < Bitboard.PIECE_TYPES; type++) {
+            int pieceIndex = enemy * Bitboard.PIECE_TYPES + type;
+            long attackers = bits.pieces(pieceIndex);
+            while (attackers != 0) {
+                int square = Long.numberOfTrailingZeros(attackers);
+                attackers &= attackers - 1;
+                if ((AttackTables.attacks(pieceIndex, square, bits.occupied()) & king) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
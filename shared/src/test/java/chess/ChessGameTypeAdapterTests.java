@@ -0,0 +1,62 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import model.GameData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import serialization.Serializer;
+
+public class ChessGameTypeAdapterTests {
+
+    @Test
+    public void matchesReflectiveJsonTest() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.setEnded();
+
+        String json = Serializer.GSON.toJson(game);
+        Assertions.assertEquals(new Gson().toJson(game), json);
+        Assertions.assertTrue(json.startsWith("{\"teamTurn\":\"BLACK\",\"gameBoard\":{\"squares\":[[{\"pieceColor\""));
+    }
+
+    @Test
+    public void roundTripTest() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+
+        ChessGame copy = Serializer.GSON.fromJson(Serializer.GSON.toJson(game), ChessGame.class);
+        Assertions.assertEquals(game, copy);
+        Assertions.assertFalse(copy.isEnded());
+        Assertions.assertEquals(game.getZobristKey(), copy.getZobristKey());
+
+        ChessGame reflective = Serializer.GSON.fromJson(new Gson().toJson(game), ChessGame.class);
+        Assertions.assertEquals(game, reflective);
+    }
+
+    @Test
+    public void nestedGameTest() {
+        GameData data = new GameData(1000, "white", null, "game", new ChessGame());
+        GameData copy = Serializer.GSON.fromJson(Serializer.GSON.toJson(data), GameData.class);
+        Assertions.assertEquals(data, copy);
+
+        GameData noGame = new GameData(1001, null, null, "empty", null);
+        Assertions.assertEquals(noGame, Serializer.GSON.fromJson(Serializer.GSON.toJson(noGame), GameData.class));
+    }
+
+    @Test
+    public void invalidJsonTest() {
+        String badType = "{\"teamTurn\":\"WHITE\",\"gameBoard\":{\"squares\":[[{\"pieceColor\":\"WHITE\",\"type\":\"DRAGON\"}]]}}";
+        Assertions.assertThrows(RuntimeException.class, () -> Serializer.GSON.fromJson(badType, ChessGame.class));
+    }
+
+    @Test
+    public void oversizedBoardTest() {
+        String nineSquares = "{\"gameBoard\":{\"squares\":[[null,null,null,null,null,null,null,null,null]]}}";
+        Assertions.assertThrows(JsonParseException.class, () -> Serializer.GSON.fromJson(nineSquares, ChessGame.class));
+
+        String nineRows = "{\"gameBoard\":{\"squares\":[[],[],[],[],[],[],[],[],[]]}}";
+        Assertions.assertThrows(JsonParseException.class, () -> Serializer.GSON.fromJson(nineRows, ChessGame.class));
+    }
+}
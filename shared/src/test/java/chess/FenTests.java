@@ -0,0 +1,68 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FenTests {
+
+    @Test
+    public void startingPositionTest() {
+        ChessGame game = ChessGame.fromFen(Fen.STARTING_POSITION);
+        Assertions.assertEquals(new ChessGame(), game);
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", game.toFen());
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR", game.getBoard().toFen());
+    }
+
+    @Test
+    public void roundTripTest() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        String fen = game.toFen();
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 1", fen);
+
+        ChessGame copy = ChessGame.fromFen(fen);
+        Assertions.assertEquals(game, copy);
+        Assertions.assertEquals(game.getZobristKey(), copy.getZobristKey());
+        Assertions.assertEquals(fen, copy.toFen());
+    }
+
+    @Test
+    public void optionalFieldsTest() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K2R b");
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK),
+                game.getBoard().getPiece(ChessPosition.of(1, 8)));
+        Assertions.assertEquals(game, ChessGame.fromFen("4k3/8/8/8/8/8/8/4K2R b K e3 12 40"));
+    }
+
+    @Test
+    public void castlingAndEnPassantTest() {
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 0 1");
+        Assertions.assertEquals(Castling.WHITE_KINGSIDE | Castling.BLACK_QUEENSIDE, game.getCastlingRights());
+        Assertions.assertEquals(Bitboard.square(6, 4), game.getEnPassantSquare());
+        Assertions.assertEquals("r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 0 1", game.toFen());
+
+        Assertions.assertEquals(-1, ChessGame.fromFen("4k3/8/8/3p4/8/8/8/4K3 w - d6 0 1").getEnPassantSquare(),
+                "no pawn can capture onto d6");
+        Assertions.assertEquals(Castling.NONE, ChessGame.fromFen("4k3/8/8/8/8/8/8/R4K2 w KQkq - 0 1")
+                .getCastlingRights(), "rights without the rook and king at home are dropped");
+    }
+
+    @Test
+    public void invalidFenTest() {
+        String[] invalid = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e5 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w  - - 0 1",
+        };
+        for (String fen : invalid) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen), fen);
+        }
+    }
+}
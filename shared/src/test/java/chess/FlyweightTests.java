@@ -0,0 +1,55 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+
+public class FlyweightTests {
+
+    @Test
+    public void positionsAreSharedTest() {
+        Assertions.assertSame(ChessPosition.of(4, 5), ChessPosition.of(4, 5));
+        Assertions.assertEquals(new ChessPosition(4, 5), ChessPosition.of(4, 5));
+        Assertions.assertEquals(4, ChessPosition.of(4, 5).getRow());
+        Assertions.assertEquals(5, ChessPosition.of(4, 5).getColumn());
+
+        ChessPosition offBoard = ChessPosition.of(0, 0);
+        Assertions.assertEquals(new ChessPosition(0, 0), offBoard);
+        Assertions.assertNotSame(offBoard, ChessPosition.of(0, 0));
+    }
+
+    @Test
+    public void piecesAreSharedTest() {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                ChessPiece piece = ChessPiece.of(color, type);
+                Assertions.assertSame(piece, ChessPiece.of(color, type));
+                Assertions.assertEquals(new ChessPiece(color, type), piece);
+            }
+        }
+    }
+
+    @Test
+    public void movesAreSharedTest() {
+        ChessMove promotion = ChessMove.of(ChessPosition.of(7, 1), ChessPosition.of(8, 1), ChessPiece.PieceType.ROOK);
+        Assertions.assertSame(promotion,
+                ChessMove.of(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.ROOK));
+        Assertions.assertEquals(new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1),
+                ChessPiece.PieceType.ROOK), promotion);
+        Assertions.assertNotSame(promotion, ChessMove.of(ChessPosition.of(7, 1), ChessPosition.of(8, 1), null));
+    }
+
+    @Test
+    public void generatedMovesAreSharedTest() {
+        ChessGame game = new ChessGame();
+        Collection<ChessMove> first = game.validMoves(ChessPosition.of(1, 2));
+        Collection<ChessMove> second = game.validMoves(ChessPosition.of(1, 2));
+        for (ChessMove move : first) {
+            Assertions.assertTrue(second.stream().anyMatch(other -> other == move), move + " was not reused");
+            Assertions.assertSame(ChessPosition.of(1, 2), move.getStartPosition());
+        }
+        Assertions.assertSame(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
+                game.getBoard().getPiece(ChessPosition.of(1, 2)));
+    }
+}
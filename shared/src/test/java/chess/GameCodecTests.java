@@ -0,0 +1,64 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GameCodecTests {
+
+    @Test
+    public void roundTripTest() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        byte[] bytes = GameCodec.encode(game);
+        Assertions.assertEquals(GameCodec.SIZE, bytes.length);
+
+        ChessGame copy = GameCodec.decode(bytes);
+        Assertions.assertEquals(game, copy);
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, copy.getTeamTurn());
+        Assertions.assertFalse(copy.isEnded());
+        Assertions.assertEquals(game.getZobristKey(), copy.getZobristKey());
+    }
+
+    @Test
+    public void everyPieceAndEndedTest() {
+        ChessGame game = ChessGame.fromFen("n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1");
+        game.getBoard().addPiece(ChessPosition.of(4, 4), ChessPiece.of(ChessGame.TeamColor.WHITE,
+                ChessPiece.PieceType.QUEEN));
+        game.getBoard().addPiece(ChessPosition.of(5, 5), ChessPiece.of(ChessGame.TeamColor.BLACK,
+                ChessPiece.PieceType.ROOK));
+        game.getBoard().addPiece(ChessPosition.of(5, 1), ChessPiece.of(ChessGame.TeamColor.BLACK,
+                ChessPiece.PieceType.BISHOP));
+        game.setEnded();
+
+        ChessGame copy = GameCodec.decode(GameCodec.encode(game));
+        Assertions.assertEquals(game.toFen(), copy.toFen());
+        Assertions.assertTrue(copy.isEnded());
+    }
+
+    @Test
+    public void castlingAndEnPassantTest() {
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 0 1");
+        byte[] bytes = GameCodec.encode(game);
+        Assertions.assertEquals(game.toFen(), GameCodec.decode(bytes).toFen());
+
+        // version 1 kept neither, so the rights come from the board
+        bytes[0] = 1;
+        bytes[1] = 0;
+        bytes[2] = (byte) 0xFF;
+        Assertions.assertEquals("r3k2r/8/8/3pP3/8/8/8/R3K2R w KQkq - 0 1", GameCodec.decode(bytes).toFen());
+    }
+
+    @Test
+    public void invalidBytesTest() {
+        byte[] bytes = GameCodec.encode(new ChessGame());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(new byte[4]));
+
+        byte[] badVersion = bytes.clone();
+        badVersion[0] = 9;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(badVersion));
+
+        byte[] badPiece = bytes.clone();
+        badPiece[20] = (byte) 0xF0;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(badPiece));
+    }
+}
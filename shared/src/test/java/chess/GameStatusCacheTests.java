@@ -0,0 +1,64 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+public class GameStatusCacheTests {
+
+    @Test
+    public void startingStatusTest() {
+        ChessGame game = new ChessGame();
+        GameStatus status = game.getStatus(ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, status.team());
+        Assertions.assertFalse(status.inCheck());
+        Assertions.assertEquals(20, status.legalMoves());
+        Assertions.assertFalse(status.isGameOver());
+        Assertions.assertSame(status, game.getStatus(ChessGame.TeamColor.WHITE), "status should be cached");
+    }
+
+    @Test
+    public void movesInvalidateStatusTest() throws InvalidMoveException {
+        // fool's mate
+        ChessGame game = new ChessGame();
+        GameStatus before = game.getStatus(ChessGame.TeamColor.WHITE);
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 6), ChessPosition.of(3, 6), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(2, 7), ChessPosition.of(4, 7), null));
+        game.makeMove(ChessMove.of(ChessPosition.of(8, 4), ChessPosition.of(4, 8), null));
+
+        GameStatus mated = game.getStatus(ChessGame.TeamColor.WHITE);
+        Assertions.assertNotSame(before, mated);
+        Assertions.assertTrue(mated.isCheckmate());
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+
+        game.unmakeMove();
+        Assertions.assertFalse(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(game.getStatus(ChessGame.TeamColor.WHITE).inCheck());
+    }
+
+    @Test
+    public void boardChangesInvalidateStatusTest() {
+        ChessGame game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard("""
+                |k| | | | | | | |
+                | | |Q| | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | |K|
+                """));
+        Assertions.assertTrue(game.getStatus(ChessGame.TeamColor.BLACK).isStalemate());
+
+        game.getBoard().removePiece(ChessPosition.of(7, 3));
+        GameStatus free = game.getStatus(ChessGame.TeamColor.BLACK);
+        Assertions.assertFalse(free.isGameOver());
+        Assertions.assertEquals(3, free.legalMoves());
+
+        game.setBoard(new ChessBoard());
+        Assertions.assertTrue(game.getStatus(ChessGame.TeamColor.BLACK).isStalemate(),
+                "a team with no pieces has no moves");
+    }
+}
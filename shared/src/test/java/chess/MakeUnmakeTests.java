@@ -0,0 +1,74 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MakeUnmakeTests {
+
+    @Test
+    public void unmakeRestoresCaptureTest() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessGame start = new ChessGame();
+        game.makeMove(move(2, 5, 4, 5, null));
+        game.makeMove(move(7, 4, 5, 4, null));
+        game.makeMove(move(4, 5, 5, 4, null));
+        Assertions.assertEquals(3, game.getUndoDepth());
+
+        game.unmakeMove();
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN),
+                game.getBoard().getPiece(new ChessPosition(5, 4)));
+        game.unmakeMove();
+        game.unmakeMove();
+        Assertions.assertEquals(start, game);
+        Assertions.assertThrows(IllegalStateException.class, game::unmakeMove);
+    }
+
+    @Test
+    public void unmakePromotionTest() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(7, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(new ChessPosition(8, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+
+        game.applyMove(move(7, 1, 8, 2, ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
+                board.getPiece(new ChessPosition(8, 2)));
+        Assertions.assertEquals(Bitboard.bit(Bitboard.square(8, 2)), board.getBitboard().occupied());
+
+        game.unmakeMove();
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                board.getPiece(new ChessPosition(7, 1)));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK),
+                board.getPiece(new ChessPosition(8, 2)));
+        Assertions.assertEquals(2, Long.bitCount(board.getBitboard().occupied()));
+    }
+
+    @Test
+    public void unmakeCastleAndEnPassantTest() {
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/1p6/8/P7/R3K2R w KQkq - 0 1");
+        ChessGame start = ChessGame.fromFen(game.toFen());
+        long startKey = game.getZobristKey();
+
+        game.applyMove(move(2, 1, 4, 1, null));
+        Assertions.assertEquals(Bitboard.square(3, 1), game.getEnPassantSquare());
+        game.applyMove(move(4, 2, 3, 1, null));
+        Assertions.assertNull(game.getBoard().getPiece(new ChessPosition(4, 1)), "the passed pawn is taken");
+        game.applyMove(move(1, 5, 1, 7, null));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK),
+                game.getBoard().getPiece(new ChessPosition(1, 6)));
+        Assertions.assertEquals(Castling.BLACK_KINGSIDE | Castling.BLACK_QUEENSIDE, game.getCastlingRights());
+        Assertions.assertEquals(ChessGame.fromFen(game.toFen()).getZobristKey(), game.getZobristKey());
+
+        game.unmakeMove();
+        game.unmakeMove();
+        game.unmakeMove();
+        Assertions.assertEquals(start, game);
+        Assertions.assertEquals(startKey, game.getZobristKey());
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol, ChessPiece.PieceType promotion) {
+        return new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), promotion);
+    }
+}
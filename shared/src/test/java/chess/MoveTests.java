@@ -0,0 +1,67 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MoveTests {
+
+    @Test
+    public void packAndUnpackTest() {
+        int move = Move.of(Bitboard.square(7, 2), Bitboard.square(8, 1), ChessPiece.PieceType.KNIGHT, Move.CAPTURE);
+        Assertions.assertEquals(Bitboard.square(7, 2), Move.from(move));
+        Assertions.assertEquals(Bitboard.square(8, 1), Move.to(move));
+        Assertions.assertEquals(ChessPiece.PieceType.KNIGHT, Move.promotion(move));
+        Assertions.assertTrue(Move.isCapture(move));
+        Assertions.assertTrue(Move.isPromotion(move));
+        Assertions.assertTrue(move < (1 << 20), "a move must fit in a transposition table entry");
+
+        ChessMove chessMove = Move.toChessMove(move);
+        Assertions.assertEquals(new ChessMove(new ChessPosition(7, 2), new ChessPosition(8, 1),
+                ChessPiece.PieceType.KNIGHT), chessMove);
+        Assertions.assertNotEquals(move, Move.of(chessMove));
+        Assertions.assertTrue(Move.sameMove(move, Move.of(chessMove)));
+
+        int quiet = Move.of(Bitboard.square(2, 5), Bitboard.square(4, 5));
+        Assertions.assertNull(Move.promotion(quiet));
+        Assertions.assertFalse(Move.isCapture(quiet));
+        Assertions.assertFalse(Move.sameMove(move, quiet));
+    }
+
+    @Test
+    public void packedGenerationMatchesChessMovesTest() {
+        ChessGame game = new ChessGame();
+        game.setBoard(passoff.chess.TestUtilities.loadBoard("""
+                |r| | | |k| | |r|
+                |p| |p|p|q|p|b| |
+                |b|n| | |p|n|p| |
+                | | | |P|N| | | |
+                | |p| | |P| | | |
+                | | |N| | |Q| |p|
+                |P|P|P|B|B|P|P|P|
+                |R| | | |K| | |R|
+                """));
+        MoveList packed = new MoveList();
+        MoveGenerator.legalMoves(game.getBoard(), game.getTeamTurn(), ~0L, packed);
+        List<ChessMove> moves = new ArrayList<>();
+        MoveGenerator.legalMoves(game.getBoard(), game.getTeamTurn(), ~0L, moves);
+
+        Assertions.assertEquals(moves.size(), packed.size());
+        for (int i = 0; i < packed.size(); i++) {
+            int move = packed.get(i);
+            Assertions.assertEquals(moves.get(i), Move.toChessMove(move));
+            boolean occupied = game.getBoard().pieceAt(Move.to(move)) != null;
+            Assertions.assertEquals(occupied, Move.isCapture(move), Move.toChessMove(move).toString());
+        }
+        Assertions.assertTrue(packed.contains(Move.of(Bitboard.square(5, 5), Bitboard.square(7, 6))));
+        Assertions.assertFalse(packed.contains(Move.of(Bitboard.square(1, 5), Bitboard.square(3, 5))));
+
+        int capture = Move.of(Bitboard.square(5, 5), Bitboard.square(7, 6)) | Move.CAPTURE;
+        ChessGame copy = new ChessGame(game);
+        copy.applyMove(capture);
+        copy.unmakeMove();
+        Assertions.assertEquals(game, copy);
+    }
+}
@@ -0,0 +1,67 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Perft counts for standard test positions, taken from the Chess Programming
+ * Wiki.
+ */
+public class PerftTests {
+
+    @Test
+    public void startingPositionTest() {
+        assertCounts(Fen.STARTING_POSITION, 20, 400, 8902, 197281);
+    }
+
+    @Test
+    public void kiwipeteTest() {
+        assertCounts("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 48, 2039, 97862);
+    }
+
+    @Test
+    public void endgamePositionTest() {
+        assertCounts("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 14, 191, 2812, 43238, 674624);
+    }
+
+    @Test
+    public void promotionPositionTest() {
+        assertCounts("n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1", 24, 496, 9483, 182838);
+    }
+
+    @Test
+    public void divideTest() {
+        ChessGame game = new ChessGame();
+        Map<String, Long> counts = Perft.divide(game, 2);
+
+        Assertions.assertEquals(20, counts.size());
+        Assertions.assertEquals(20L, counts.get("e2e4"));
+        Assertions.assertEquals(20L, counts.get("g1f3"));
+        Assertions.assertEquals(400L, counts.values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertEquals(new ChessGame(), game, "divide should leave the game unchanged");
+    }
+
+    @Test
+    public void parallelMatchesSequentialTest() {
+        ChessGame game = new ChessGame();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Assertions.assertEquals(Perft.perft(game, 5), ParallelPerft.perft(game, 5, pool));
+            Assertions.assertEquals(Perft.divide(game, 3), ParallelPerft.divide(game, 3, pool));
+        } finally {
+            pool.shutdown();
+        }
+        Assertions.assertEquals(new ChessGame(), game, "parallel perft should not touch the caller's game");
+    }
+
+    private static void assertCounts(String fen, long... expected) {
+        ChessGame game = ChessGame.fromFen(fen);
+        for (int depth = 1; depth <= expected.length; depth++) {
+            Assertions.assertEquals(expected[depth - 1], Perft.perft(game, depth), "perft(" + depth + ")");
+        }
+        Assertions.assertEquals(0, game.getUndoDepth(), "perft should undo every move it makes");
+    }
+}
@@ -0,0 +1,81 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTests {
+
+    @Test
+    public void storeAndProbeTest() {
+        TranspositionTable table = new TranspositionTable(1);
+        ChessGame game = new ChessGame();
+        ChessMove best = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+
+        Assertions.assertEquals(TranspositionTable.MISS, table.probe(game));
+        table.store(game, TranspositionTable.encodeMove(best), -35, 7, TranspositionTable.LOWER_BOUND);
+        long entry = table.probe(game);
+
+        Assertions.assertNotEquals(TranspositionTable.MISS, entry);
+        Assertions.assertEquals(best, TranspositionTable.decodeMove(TranspositionTable.move(entry)));
+        Assertions.assertEquals(-35, TranspositionTable.score(entry));
+        Assertions.assertEquals(7, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+        Assertions.assertEquals(1, table.getHits());
+        Assertions.assertEquals(1, table.getMisses());
+    }
+
+    @Test
+    public void promotionMoveRoundTripTest() {
+        ChessMove promotion = new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 2), ChessPiece.PieceType.KNIGHT);
+        Assertions.assertEquals(promotion, TranspositionTable.decodeMove(TranspositionTable.encodeMove(promotion)));
+    }
+
+    @Test
+    public void sameKeyKeepsOldMoveTest() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(42L, 1234, 10, 3, TranspositionTable.EXACT);
+        table.store(42L, 0, 20, 5, TranspositionTable.UPPER_BOUND);
+        long entry = table.probe(42L);
+
+        Assertions.assertEquals(1234, TranspositionTable.move(entry));
+        Assertions.assertEquals(20, TranspositionTable.score(entry));
+        Assertions.assertEquals(5, TranspositionTable.depth(entry));
+    }
+
+    @Test
+    public void replacementPrefersStaleShallowEntriesTest() {
+        TranspositionTable table = new TranspositionTable(1);
+        long stride = table.capacity() / 4;
+        // five keys that land in the same bucket
+        long[] keys = {1, 1 + stride, 1 + 2 * stride, 1 + 3 * stride, 1 + 4 * stride};
+        table.store(keys[0], 0, 0, 20, TranspositionTable.EXACT);
+        table.store(keys[1], 0, 0, 2, TranspositionTable.EXACT);
+        table.newSearch();
+        table.store(keys[2], 0, 0, 4, TranspositionTable.EXACT);
+        table.store(keys[3], 0, 0, 6, TranspositionTable.EXACT);
+        table.store(keys[4], 0, 0, 5, TranspositionTable.EXACT);
+
+        Assertions.assertEquals(TranspositionTable.MISS, table.probe(keys[1]), "stale shallow entry should go first");
+        Assertions.assertNotEquals(TranspositionTable.MISS, table.probe(keys[0]));
+        Assertions.assertNotEquals(TranspositionTable.MISS, table.probe(keys[2]));
+        Assertions.assertNotEquals(TranspositionTable.MISS, table.probe(keys[3]));
+        Assertions.assertNotEquals(TranspositionTable.MISS, table.probe(keys[4]));
+    }
+
+    @Test
+    public void sizeFitsBudgetTest() {
+        TranspositionTable table = new TranspositionTable(16);
+        Assertions.assertEquals((16 << 20) / 16, table.capacity());
+        table.clear();
+        Assertions.assertEquals(0, table.hashfull());
+    }
+
+    @Test
+    public void sizeIsCappedTest() {
+        Assertions.assertEquals(1 << 14, TranspositionTable.bucketCount(1));
+        Assertions.assertEquals(1 << 14, TranspositionTable.bucketCount(0));
+        Assertions.assertEquals(1 << 27, TranspositionTable.bucketCount(16384));
+        Assertions.assertEquals(1 << 27, TranspositionTable.bucketCount(Integer.MAX_VALUE));
+        Assertions.assertTrue((long) TranspositionTable.bucketCount(Integer.MAX_VALUE) * 8 <= Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,78 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+public class ZobristTests {
+
+    @Test
+    public void transpositionsShareKeyTest() {
+        ChessGame first = new ChessGame();
+        first.applyMove(move(1, 7, 3, 6));
+        first.applyMove(move(8, 7, 6, 6));
+        first.applyMove(move(1, 2, 3, 3));
+
+        ChessGame second = new ChessGame();
+        second.applyMove(move(1, 2, 3, 3));
+        second.applyMove(move(8, 7, 6, 6));
+        second.applyMove(move(1, 7, 3, 6));
+
+        Assertions.assertEquals(first.getZobristKey(), second.getZobristKey());
+        Assertions.assertNotEquals(new ChessGame().getZobristKey(), first.getZobristKey());
+    }
+
+    @Test
+    public void sideToMoveChangesKeyTest() {
+        ChessGame game = new ChessGame();
+        long whiteKey = game.getZobristKey();
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(whiteKey ^ Zobrist.blackToMove(), game.getZobristKey());
+    }
+
+    @Test
+    public void incrementalKeyMatchesRebuiltKeyTest() {
+        Random random = new Random(7);
+        ChessGame game = new ChessGame();
+        long startKey = game.getZobristKey();
+        int played = 0;
+        for (int ply = 0; ply < 120; ply++) {
+            ArrayList<ChessMove> moves = new ArrayList<>();
+            MoveGenerator.legalMoves(game, ~0L, moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            game.applyMove(moves.get(random.nextInt(moves.size())));
+            played++;
+
+            ChessGame rebuilt = new ChessGame();
+            rebuilt.setBoard(copyOfSquares(game.getBoard()));
+            rebuilt.setTeamTurn(game.getTeamTurn());
+            rebuilt.setPositionState(game.getCastlingRights(), game.getEnPassantSquare());
+            Assertions.assertEquals(rebuilt.getZobristKey(), game.getZobristKey(), "key drifted at ply " + ply);
+        }
+        for (int i = 0; i < played; i++) {
+            game.unmakeMove();
+        }
+        Assertions.assertEquals(startKey, game.getZobristKey());
+    }
+
+    private static ChessBoard copyOfSquares(ChessBoard board) {
+        ChessBoard copy = new ChessBoard();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = new ChessPosition(row, col);
+                if (board.getPiece(position) != null) {
+                    copy.addPiece(position, board.getPiece(position));
+                }
+            }
+        }
+        return copy;
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), null);
+    }
+}